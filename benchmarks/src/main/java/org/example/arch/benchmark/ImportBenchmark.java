@@ -0,0 +1,92 @@
+package org.example.arch.benchmark;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.example.arch.importer.ClassHeaders;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Стоимость импорта ClassFileImporter в зависимости от размера кодовой базы: полного и импорта копий
+ * без тел методов, на котором вычисляются правила @StructuralRule.
+ * Счетчик importedClasses показывает пропускную способность в классах в секунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Benchmark
+    public JavaClasses importClasses(SyntheticCodebaseState codebase, ImportedClasses counter) {
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory);
+        counter.importedClasses += classes.size();
+        return classes;
+    }
+
+    @Benchmark
+    public JavaClasses importClassHeaders(ClassHeadersState headers, ImportedClasses counter) {
+        JavaClasses classes = new ClassFileImporter().importPath(headers.directory);
+        counter.importedClasses += classes.size();
+        return classes;
+    }
+
+    /**
+     * Копии class-файлов синтетической кодовой базы без тел методов, как у ArchTestSuite.importClassHeaders().
+     */
+    @State(Scope.Benchmark)
+    public static class ClassHeadersState {
+
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void strip(SyntheticCodebaseState codebase) throws IOException {
+            directory = Files.createTempDirectory("synthetic-codebase-headers");
+            try (Stream<Path> classFiles = Files.walk(codebase.directory)) {
+                for (Path classFile : classFiles.filter(Files::isRegularFile).toList()) {
+                    Path header = directory.resolve(codebase.directory.relativize(classFile));
+                    Files.createDirectories(header.getParent());
+                    Files.write(header, ClassHeaders.strip(Files.readAllBytes(classFile)));
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ImportedClasses {
+
+        public long importedClasses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            importedClasses = 0;
+        }
+    }
+}
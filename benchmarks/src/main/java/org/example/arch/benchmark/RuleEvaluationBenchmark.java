@@ -0,0 +1,65 @@
+package org.example.arch.benchmark;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.example.arch.ArchitectureTest;
+import org.example.arch.runner.ArchTestSuite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время проверки отдельных правил из {@link ArchitectureTest} на уже импортированных синтетических классах,
+ * импорт в замер не входит.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleEvaluationBenchmark {
+
+    @Param({
+            "layered_architecture",
+            "no_classes_depend_on_dao_except_repo",
+            "all_classes_in_service_package_are_annotated_and_correctly_named",
+            "all_jooq_executes_except_insert_have_where_condition",
+            "no_database_queries_inside_loops",
+            "all_events_are_used_in_system",
+            "no_blocking_calls_on_listener_and_request_threads"
+    })
+    public String rule;
+
+    private ArchRule archRule;
+    private JavaClasses classes;
+
+    @Setup(Level.Trial)
+    public void importClasses(SyntheticCodebaseState codebase) {
+        ArchRule declared = ArchTestSuite.of(ArchitectureTest.class).rules().get(rule);
+        if (declared == null) {
+            throw new IllegalArgumentException("Unknown rule " + rule);
+        }
+        // На синтетике часть правил может не найти ни одного класса, это не должно ронять замер
+        archRule = declared.allowEmptyShould(true);
+        classes = new ClassFileImporter().importPath(codebase.directory);
+    }
+
+    @Benchmark
+    public EvaluationResult evaluate() {
+        return archRule.evaluate(classes);
+    }
+}
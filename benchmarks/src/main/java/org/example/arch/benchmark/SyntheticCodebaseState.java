@@ -0,0 +1,50 @@
+package org.example.arch.benchmark;
+
+import org.example.arch.synthetic.SyntheticCodebase;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Синтетическая кодовая база заданного размера, сгенерированная во временную директорию на время прогона.
+ */
+@State(Scope.Benchmark)
+public class SyntheticCodebaseState {
+
+    @Param({"1000", "10000", "50000"})
+    public int classCount;
+
+    @Param({"3"})
+    public int dependenciesPerClass;
+
+    // Число заложенных нарушений каждого вида, чтобы в замер попадало и построение отчета
+    @Param({"0"})
+    public int violations;
+
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = SyntheticCodebase.ofSize(classCount)
+                .withDependenciesPerClass(dependenciesPerClass)
+                .withViolations(violations)
+                .generate(Files.createTempDirectory("synthetic-codebase"))
+                .directory();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
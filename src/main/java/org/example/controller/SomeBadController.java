@@ -14,4 +14,8 @@ public class SomeBadController {
     public Integer invokeWithBadArgs(Map<String, String> badArgs) {
         return Integer.MAX_VALUE;
     }
+
+    public Integer invokeBlocking() {
+        return badServiceClass.waitForResult();
+    }
 }
@@ -0,0 +1,28 @@
+package org.example.listener;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BadKafkaListener {
+
+    @KafkaListener(topics = "bad-topic")
+    public void onMessage(String message) {
+        handle(message, 3);
+    }
+
+    private void handle(String message, int attempts) {
+        if (message.isEmpty() && attempts > 0) {
+            retry(message, attempts);
+        }
+    }
+
+    private void retry(String message, int attempts) {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        handle(message, attempts - 1);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.listener;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DelegatingKafkaListener {
+
+    private MessageHandler handler;
+
+    @KafkaListener(topics = "delegated-topic")
+    public void onMessage(String message) {
+        handler.handle(message);
+    }
+}
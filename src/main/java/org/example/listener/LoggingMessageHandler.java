@@ -0,0 +1,12 @@
+package org.example.listener;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoggingMessageHandler implements MessageHandler {
+
+    @Override
+    public void handle(String message) {
+        System.out.println(message);
+    }
+}
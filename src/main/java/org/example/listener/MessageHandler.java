@@ -0,0 +1,6 @@
+package org.example.listener;
+
+public interface MessageHandler {
+
+    void handle(String message);
+}
@@ -0,0 +1,20 @@
+package org.example.listener;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class MessageHandlerRegistry {
+
+    private final List<MessageHandler> handlers = new ArrayList<>();
+
+    public void register(MessageHandler handler) {
+        handlers.add(handler);
+    }
+
+    public int size() {
+        return handlers.size();
+    }
+}
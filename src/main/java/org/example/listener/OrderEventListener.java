@@ -0,0 +1,19 @@
+package org.example.listener;
+
+import org.example.events.OrderCreatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OrderEventListener {
+
+    private final List<String> createdOrders = new ArrayList<>();
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        createdOrders.add(event.getOrderId());
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.listener;
+
+import org.example.events.OrderCreatedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderKafkaListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public OrderKafkaListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @KafkaListener(topics = "orders")
+    public void onMessage(String orderId) {
+        publisher.publishEvent(new OrderCreatedEvent(orderId));
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.listener;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PollingKafkaListener {
+
+    @KafkaListener(topics = "polling-topic")
+    public void onMessage(String message) {
+        pause(100);
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void poll() throws InterruptedException {
+        Thread.sleep(1000);
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.listener;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class SleepingMessageHandler implements MessageHandler {
+
+    @Override
+    public void handle(String message) {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
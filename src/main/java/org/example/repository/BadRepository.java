@@ -2,8 +2,12 @@ package org.example.repository;
 
 import org.example.EaistRequestContext;
 import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public class BadRepository {
 
@@ -19,4 +23,49 @@ public class BadRepository {
         dslContext.query("")
                 .execute();
     }
+
+    public void deleteEverything() {
+        dslContext.deleteFrom(DSL.table("bad_table"))
+                .execute();
+    }
+
+    public void findEach(List<Long> ids) {
+        for (Long id : ids) {
+            dslContext.selectFrom(DSL.table("bad_table"))
+                    .where(DSL.field("id").eq(id))
+                    .fetch();
+        }
+    }
+
+    public void deleteOne(Long id) {
+        dslContext.deleteFrom(DSL.table("bad_table"))
+                .where(DSL.field("id").eq(id))
+                .execute();
+    }
+
+    public void renameAll() {
+        dslContext.update(DSL.table("bad_table"))
+                .set(DSL.field("name", String.class), dslContext.select(DSL.field("name", String.class))
+                        .from(DSL.table("other_table"))
+                        .where(DSL.field("id").eq(1L))
+                        .asField())
+                .execute();
+    }
+
+    public void renameLater() {
+        schedule(dslContext.update(DSL.table("bad_table"))
+                .set(DSL.field("name", String.class), "later"));
+        dslContext.query("analyze bad_table")
+                .execute();
+    }
+
+    public void archiveBeforeDelete(Long id) {
+        schedule(dslContext.deleteFrom(DSL.table("bad_table")));
+        dslContext.insertInto(DSL.table("archive_table"), DSL.field("id", Long.class))
+                .values(id)
+                .execute();
+    }
+
+    private void schedule(Query query) {
+    }
 }
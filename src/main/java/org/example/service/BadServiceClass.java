@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.example.controller.internal.SomeBadInternalController;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -18,6 +19,8 @@ public class BadServiceClass {
 
     private final ExecutorService executors = Executors.newCachedThreadPool();
 
+    private final ExecutorService fixedExecutors = Executors.newFixedThreadPool(4);
+
     private SomeBadInternalController someBadInternalController;
     private DAOImpl dao;
     private DSLContext dslContext;
@@ -31,4 +34,12 @@ public class BadServiceClass {
     public Integer getZero(Integer zero) throws Error {
         return zero;
     }
+
+    public Integer waitForResult() {
+        return CompletableFuture.supplyAsync(() -> Integer.MAX_VALUE, fixedExecutors).join();
+    }
+
+    public void runInBackground(Runnable task) {
+        new Thread(task).start();
+    }
 }
@@ -1,10 +1,10 @@
 package org.example.arch;
 
-import com.tngtech.archunit.core.domain.JavaAccess;
 import com.tngtech.archunit.core.domain.JavaClass;
-import com.tngtech.archunit.core.domain.JavaMethod;
 import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchIgnore;
 import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
 import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ArchRule;
 import com.tngtech.archunit.lang.ConditionEvents;
@@ -20,6 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 import org.example.EaistRequestContext;
 import org.example.Secure;
 import org.example.SecureMultiple;
+import org.example.arch.rules.ExecutorRules;
+import org.example.arch.runner.GlobalRule;
+import org.example.arch.runner.StructuralRule;
 import org.example.generated.tables.daos.DAOImpl;
 
 import java.util.Map;
@@ -27,8 +30,17 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.*;
-import static com.tngtech.archunit.library.Architectures.layeredArchitecture;
-
+import static org.example.arch.condition.BlockingCallConditions.kafkaListeners;
+import static org.example.arch.condition.BlockingCallConditions.notReachBlockingCalls;
+import static org.example.arch.condition.BoundedArchCondition.bounded;
+import static org.example.arch.condition.JooqConditions.executeUpdatesAndDeletesOnlyWithWhere;
+import static org.example.arch.condition.JooqConditions.notQueryDatabaseInsideLoops;
+import static org.example.arch.condition.ParallelArchCondition.inParallel;
+import static org.example.arch.index.CallerIndex.callersOf;
+import static org.example.arch.layer.LayeredArchitecture.layeredArchitecture;
+
+// Правила проверяет ParallelArchitectureTest через ArchTestSuite, поэтому движок ArchUnit класс пропускает
+@ArchIgnore(reason = "Checked by ParallelArchitectureTest with baselines and rule metrics")
 @AnalyzeClasses(packages = "ru.proitr", importOptions = ExcludeTestsImportOption.class)
 public class ArchitectureTest {
 
@@ -52,10 +64,10 @@ public class ArchitectureTest {
     private static final String ENUM_PACKAGE = "ru.proitr.enums";
 
     @ArchTest
+    @GlobalRule
     public static final ArchRule layered_architecture =
-            layeredArchitecture()
-                    .consideringOnlyDependenciesInLayers()
-
+            // Описание слоев компилируется в дерево пакетов и матрицу разрешенных обращений между слоями
+            classes().should(layeredArchitecture()
                     .layer("Inbound")
                     .definedBy(
                             CONTROLLER_PACKAGE + "..",
@@ -94,7 +106,8 @@ public class ArchitectureTest {
                     .whereLayer("Producer").mayOnlyBeAccessedByLayers("Service")
                     // Классы слоя JooqInfrastructure можно использовать только в классах слоев Repository и Mapper
                     .whereLayer("JooqInfrastructure")
-                    .mayOnlyBeAccessedByLayers("Mapper", "Repository");
+                    .mayOnlyBeAccessedByLayers("Mapper", "Repository")
+                    .toCondition());
 
     // Только классы сервисы могут зависеть от классов клиентов
     @ArchTest
@@ -167,6 +180,7 @@ public class ArchitectureTest {
 
     // Все классы контроллеры должны быть с аннотацией RestController и содержать "Controller" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule all_classes_in_controller_package_are_annotated_and_correctly_named_1 =
             classes()
                     .that()
@@ -180,6 +194,7 @@ public class ArchitectureTest {
 
     // Все интерфейсы контроллеры должны содержать "Api" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule all_classes_in_controller_package_are_annotated_and_correctly_named_2 =
             classes()
                     .that()
@@ -191,6 +206,7 @@ public class ArchitectureTest {
 
     // Все классы за пределами пакета контроллеров не должны содержать аннотацию RestController и "Controller" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule no_controllers_outside_of_package =
             noClasses().that()
                     .resideOutsideOfPackage(CONTROLLER_PACKAGE + "..")
@@ -201,6 +217,7 @@ public class ArchitectureTest {
 
     // Все классы сервисы должны быть с аннотацией Service и содержать "Service" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule all_classes_in_service_package_are_annotated_and_correctly_named =
             classes().that()
                     .resideInAPackage(SERVICE_PACKAGE + "..")
@@ -214,6 +231,7 @@ public class ArchitectureTest {
 
     // Все классы за пределами пакета сервисов не должны содержать аннотацию Service и "Service" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule no_services_outside_of_package =
             noClasses().that()
                     .resideOutsideOfPackage(SERVICE_PACKAGE + "..")
@@ -222,6 +240,7 @@ public class ArchitectureTest {
 
     // Все классы репозитории должны быть с аннотацией Repository и содержать "Repository" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule all_classes_in_repository_package_are_annotated_and_correctly_named =
             classes().that()
                     .resideInAPackage(REPOSITORY_PACKAGE + "..")
@@ -234,6 +253,7 @@ public class ArchitectureTest {
 
     // Все классы за пределами пакета репозиториев не должны содержать аннотацию Repository и "Repository" в имени
     @ArchTest
+    @StructuralRule
     public static final ArchRule no_repositories_and_dao_outside_of_package =
             noClasses().that()
                     .resideOutsideOfPackages(
@@ -249,6 +269,7 @@ public class ArchitectureTest {
 
     // Аннотацию Secure нельзя использовать в интерфейсах
     @ArchTest
+    @StructuralRule
     public static final ArchRule secure_should_not_be_in_interfaces =
             methods()
                     .that()
@@ -264,50 +285,30 @@ public class ArchitectureTest {
                     .areAnnotatedWith(Repository.class)
                     .and()
                     .areNotAssignableTo(DAOImpl.class)
-                    .should(
-                            new ArchCondition<JavaClass>(
-                                    "check methods with .execute() (dslContext.update() / dslContext.delete() " +
-                                            "have a condition where)"
-                            ) {
-                                @Override
-                                public void check(JavaClass javaClass, ConditionEvents conditionEvents) {
-                                    javaClass.getMethods()
-                                            .stream()
-                                            .filter(JavaMethod::isMethod)
-                                            .filter(method -> method.getCallsFromSelf()
-                                                    .stream()
-                                                    .anyMatch(call -> "execute".equals(call.getName())) &&
-                                                    method.getCallsFromSelf()
-                                                            .stream()
-                                                            .noneMatch(call -> "insertInto".equals(call.getName()))
-                                            )
-                                            .filter(method -> method.getCallsFromSelf()
-                                                    .stream()
-                                                    .noneMatch(call -> "where".equals(call.getName()))
-                                            )
-                                            .forEach(javaMethod -> {
-                                                conditionEvents.add(
-                                                        new SimpleConditionEvent(
-                                                                javaClass,
-                                                                false,
-                                                                javaMethod.getFullName() +
-                                                                        " possible doing .execute() without block where()")
-                                                );
-                                            });
-                                }
-                            });
+                    .should(bounded(inParallel(executeUpdatesAndDeletesOnlyWithWhere())));
+
+    // Не допускаются запросы в базу данных (DSLContext, fetch*, DAO) внутри циклов
+    @ArchTest
+    public static final ArchRule no_database_queries_inside_loops =
+            classes().that()
+                    .areAnnotatedWith(Repository.class)
+                    .or()
+                    .areAnnotatedWith(Service.class)
+                    .should(bounded(inParallel(notQueryDatabaseInsideLoops(DAO_PACKAGE))));
 
     // Классы событий должны содержать хотя бы один метод с аннотацией EventListener и конструктор
+    // Вызывающие методы берутся из обратного индекса CallerIndex, общего для всех правил
     @ArchTest
+    @GlobalRule
     public static final ArchRule all_events_are_used_in_system =
             classes().that()
                     .resideInAPackage("ru.proitr.events")
-                    .should(
+                    .should(inParallel(
                             new ArchCondition<JavaClass>("should be used in methods that annotated @EventListener at least once") {
                                 @Override
                                 public void check(JavaClass javaClass, ConditionEvents conditionEvents) {
 
-                                    var hasListener = javaClass.getCodeUnitCallsToSelf().stream().map(JavaAccess::getOwner).anyMatch(owner -> owner.isAnnotatedWith(EventListener.class));
+                                    var hasListener = callersOf(javaClass).isCalledFromCodeUnitsAnnotatedWith(EventListener.class);
 
                                     if (Boolean.FALSE.equals(hasListener)) {
                                         conditionEvents.add(
@@ -320,13 +321,13 @@ public class ArchitectureTest {
 
                                 }
                             }
-                    )
-                    .andShould(
-                            new ArchCondition<>("should be created somewhere") {
+                    ))
+                    .andShould(inParallel(
+                            new ArchCondition<JavaClass>("should be created somewhere") {
                                 @Override
                                 public void check(JavaClass javaClass, ConditionEvents conditionEvents) {
 
-                                    var hasNotContructorCall = javaClass.getConstructorCallsToSelf().isEmpty();
+                                    var hasNotContructorCall = !callersOf(javaClass).isConstructed();
 
                                     if (hasNotContructorCall) {
                                         conditionEvents.add(
@@ -339,7 +340,17 @@ public class ArchitectureTest {
 
                                 }
                             }
-                    );
+                    ));
+
+    // Контроллеры и обработчики Kafka не должны (в том числе транзитивно) вызывать блокирующие методы
+    @ArchTest
+    public static final ArchRule no_blocking_calls_on_listener_and_request_threads =
+            classes().that()
+                    .areAnnotatedWith(RestController.class)
+                    .or()
+                    .resideInAPackage(CONTROLLER_PACKAGE + "..")
+                    .or(kafkaListeners())
+                    .should(bounded(inParallel(notReachBlockingCalls())));
 
     // Классы jakarta.servlet доступны только в сервлетах, Security-фильтрах и Util классах
     @ArchTest
@@ -356,6 +367,7 @@ public class ArchitectureTest {
 
     //Все методы классов контроллеров должны не должны принимать аргументы класса Map
     @ArchTest
+    @StructuralRule
     public static final ArchRule  all_methods_in_classes_controller_package_should_not_accept_arguments_map =
             methods()
                 .that()
@@ -368,6 +380,7 @@ public class ArchitectureTest {
 
     //В пакете enums могут быть только enum
     @ArchTest
+    @StructuralRule
     public static final ArchRule enum_only =  noClasses().that()
             .resideInAPackage(
                     ENUM_PACKAGE + ".."
@@ -377,6 +390,7 @@ public class ArchitectureTest {
 
     //Все методы с аннотацией SecureMultiple или Secure, должны быть в не Internal контроллерах
     @ArchTest
+    @StructuralRule
     public static final ArchRule all_internal_controller_without_security = noMethods().that()
             .areAnnotatedWith(SecureMultiple.class)
             .or()
@@ -397,6 +411,7 @@ public class ArchitectureTest {
 
     //Все методы в не Internal контроллерах должны быть с аннотацией SecureMultiple или Secure
     @ArchTest
+    @StructuralRule
     public static final ArchRule all_not_internal_controller_with_security = noMethods().that()
                 .areNotAnnotatedWith(SecureMultiple.class)
                 .and()
@@ -423,4 +438,8 @@ public class ArchitectureTest {
             .callMethod(Executors.class, "newCachedThreadPool")
             .orShould()
             .callMethod(Executors.class, "newCachedThreadPool", ThreadFactory.class);
+
+    //Правила создания пулов потоков: ограниченные очереди, отсутствие "сырых" потоков и пулов в не-синглтон бинах
+    @ArchTest
+    public static final ArchTests executor_hygiene = ArchTests.in(ExecutorRules.class);
 }
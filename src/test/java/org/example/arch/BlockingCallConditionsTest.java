@@ -0,0 +1,57 @@
+package org.example.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.example.arch.condition.BlockingCallConditions;
+import org.example.listener.BadKafkaListener;
+import org.example.listener.PollingKafkaListener;
+import org.example.repository.BadRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Выбор обработчиков Kafka и поиск блокирующих вызовов на фикстурах
+public class BlockingCallConditionsTest {
+
+    private final JavaClasses classes = new ClassFileImporter()
+            .importClasses(BadKafkaListener.class, PollingKafkaListener.class, BadRepository.class);
+
+    @Test
+    @DisplayName("Обработчики Kafka выбираются по аннотации @KafkaListener на методах")
+    void kafka_listeners_are_selected_by_annotation() {
+        assertTrue(BlockingCallConditions.kafkaListeners().test(classes.get(BadKafkaListener.class)));
+        assertFalse(BlockingCallConditions.kafkaListeners().test(classes.get(BadRepository.class)));
+    }
+
+    @Test
+    @DisplayName("Блокирующий вызов внутри рекурсии сообщается один раз")
+    void blocking_call_inside_recursion_is_reported() {
+        var result = classes().that().haveFullyQualifiedName(BadKafkaListener.class.getName())
+                .should(BlockingCallConditions.notReachBlockingCalls())
+                .evaluate(classes);
+        String report = result.getFailureReport().toString();
+
+        assertEquals(1, result.getFailureReport().getDetails().size(), report);
+        String listener = BadKafkaListener.class.getName();
+        assertTrue(report.contains("reaches blocking call java.lang.Thread.sleep(long) via "
+                + listener + ".onMessage(java.lang.String) -> " + listener + ".handle(java.lang.String, int) -> "
+                + listener + ".retry(java.lang.String, int)"), report);
+    }
+
+    @Test
+    @DisplayName("Обход начинается только от обработчиков, остальные методы класса не проверяются")
+    void only_handlers_are_entry_points() {
+        var result = classes().that().haveFullyQualifiedName(PollingKafkaListener.class.getName())
+                .should(BlockingCallConditions.notReachBlockingCalls())
+                .evaluate(classes);
+        String report = result.getFailureReport().toString();
+
+        assertEquals(1, result.getFailureReport().getDetails().size(), report);
+        assertTrue(report.contains(" via " + PollingKafkaListener.class.getName() + ".onMessage(java.lang.String) -> "), report);
+        assertFalse(report.contains(".poll()"), report);
+    }
+}
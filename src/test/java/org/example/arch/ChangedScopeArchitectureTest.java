@@ -0,0 +1,37 @@
+package org.example.arch;
+
+import io.qameta.allure.Allure;
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.runner.ChangedScope;
+import org.example.arch.runner.ParallelArchRuleRunner;
+import org.example.arch.runner.RuleResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Правила ArchitectureTest только по классам, затронутым изменениями рабочей копии,
+// включается через -Darchunit.scope=git [-Darchunit.scope.base=origin/master]
+@EnabledIfSystemProperty(named = "archunit.scope", matches = "git")
+public class ChangedScopeArchitectureTest {
+
+    @TestFactory
+    @DisplayName("Изменения рабочей копии не нарушают правила ArchitectureTest")
+    Stream<DynamicTest> rules_for_changed_classes() {
+        ArchTestSuite suite = ArchTestSuite.of(ArchitectureTest.class);
+        ChangedScope scope = ChangedScope.fromGit(suite.importClasses());
+        Allure.parameter("Измененных классов", scope.getChangedClasses().size());
+        Allure.parameter("Затронутых классов", scope.getClasses().size());
+
+        List<RuleResult> results = suite.evaluate(new ParallelArchRuleRunner(), suite.rules(), scope);
+
+        return results.stream().map(result -> DynamicTest.dynamicTest(result.ruleName(), () -> {
+            if (result.hasFailed()) {
+                throw new AssertionError(result.getFailureMessage());
+            }
+        }));
+    }
+}
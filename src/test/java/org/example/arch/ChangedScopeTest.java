@@ -0,0 +1,155 @@
+package org.example.arch;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.ViolationHandler;
+import org.example.arch.condition.BlockingCallConditions;
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.runner.ChangedScope;
+import org.example.arch.synthetic.SyntheticCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.GeneratedCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.Violation;
+import org.example.listener.DelegatingKafkaListener;
+import org.example.listener.LoggingMessageHandler;
+import org.example.listener.MessageHandler;
+import org.example.listener.MessageHandlerRegistry;
+import org.example.listener.SleepingMessageHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Правило по области изменений находит те же нарушения, что и полный прогон, у классов из этой области
+public class ChangedScopeTest {
+
+    private static final int CLASS_COUNT = 400;
+    private static final int RANDOM_CHANGES = 10;
+
+    @Test
+    @DisplayName("Нарушения по области изменений совпадают с нарушениями полного прогона у классов области")
+    void scoped_violations_match_full_run(@TempDir Path directory) {
+        GeneratedCodebase codebase = SyntheticCodebase.ofSize(CLASS_COUNT).withViolations(2).generate(directory);
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory());
+        ArchTestSuite suite = ArchTestSuite.of(ArchitectureTest.class);
+
+        // Изменены классы с частью заложенных нарушений и несколько случайных классов
+        List<String> changedFiles = new ArrayList<>();
+        for (Violation violation : List.of(Violation.SERVICE_USES_DAO, Violation.BLOCKING_CALL_IN_CONTROLLER)) {
+            codebase.getViolatingClasses(violation).forEach(className -> changedFiles.add(sourceFile(className)));
+        }
+        List<JavaClass> allClasses = new ArrayList<>(classes);
+        allClasses.sort((first, second) -> first.getName().compareTo(second.getName()));
+        Collections.shuffle(allClasses, new Random(SyntheticCodebase.DEFAULT_SEED));
+        allClasses.stream().limit(RANDOM_CHANGES).forEach(javaClass -> changedFiles.add(sourceFile(javaClass.getName())));
+
+        ChangedScope scope = ChangedScope.of(classes, changedFiles);
+        JavaClasses affectedClasses = scope.select(classes);
+        assertTrue(scope.getClasses().size() < classes.size(), "Scope covers all classes");
+
+        int scopedViolations = 0;
+        for (Map.Entry<String, ArchRule> rule : suite.rules().entrySet()) {
+            if (suite.globalRules().contains(rule.getKey())) {
+                continue;
+            }
+            ArchRule allowingEmpty = rule.getValue().allowEmptyShould(true);
+            Map<JavaClass, Set<String>> expected = violationsByClass(allowingEmpty.evaluate(classes));
+            expected.keySet().retainAll(scope.getClasses());
+            Map<JavaClass, Set<String>> actual = violationsByClass(allowingEmpty.evaluate(affectedClasses));
+
+            assertEquals(expected, actual, rule.getKey());
+            scopedViolations += actual.size();
+        }
+        assertTrue(scopedViolations > 0, "No seeded violation is inside the scope");
+    }
+
+    @Test
+    @DisplayName("Изменение переопределения затрагивает вызывающих метод супертипа")
+    void changed_override_affects_callers_of_supertype() {
+        JavaClasses classes = new ClassFileImporter()
+                .importClasses(MessageHandler.class, SleepingMessageHandler.class, DelegatingKafkaListener.class);
+        ArchRule rule = classes().that(BlockingCallConditions.kafkaListeners())
+                .should(BlockingCallConditions.notReachBlockingCalls())
+                .allowEmptyShould(true);
+
+        ChangedScope scope = ChangedScope.of(classes, List.of("src/main/java/org/example/listener/SleepingMessageHandler.java"));
+
+        assertTrue(scope.getClasses().contains(classes.get(DelegatingKafkaListener.class)), scope.getClasses().toString());
+        List<String> expected = rule.evaluate(classes).getFailureReport().getDetails();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, rule.evaluate(scope.select(classes)).getFailureReport().getDetails());
+    }
+
+    @Test
+    @DisplayName("Изменение реализации не затрагивает другие реализации и классы, которые не вызывают ее методы")
+    void changed_implementation_does_not_affect_siblings() {
+        JavaClasses classes = new ClassFileImporter().importClasses(MessageHandler.class, SleepingMessageHandler.class,
+                LoggingMessageHandler.class, MessageHandlerRegistry.class, DelegatingKafkaListener.class);
+
+        ChangedScope scope = ChangedScope.of(classes, List.of("src/main/java/org/example/listener/SleepingMessageHandler.java"));
+
+        assertEquals(Set.of(classes.get(SleepingMessageHandler.class), classes.get(DelegatingKafkaListener.class)), scope.getClasses());
+    }
+
+    @Test
+    @DisplayName("Файлы тестов сопоставляются только классам тестов")
+    void test_sources_match_only_test_classes() {
+        JavaClasses classes = new ClassFileImporter()
+                .importClasses(SleepingMessageHandler.class, DelegatingKafkaListener.class, ChangedScopeTest.class);
+
+        ChangedScope scope = ChangedScope.of(classes, List.of("src/test/java/org/example/listener/SleepingMessageHandler.java"));
+
+        assertEquals(Set.of(), scope.getClasses());
+        assertEquals(Set.of(classes.get(SleepingMessageHandler.class)),
+                ChangedScope.of(classes, List.of("src/main/java/org/example/listener/SleepingMessageHandler.java")).getChangedClasses());
+        assertEquals(Set.of(classes.get(ChangedScopeTest.class)),
+                ChangedScope.of(classes, List.of("src/test/java/org/example/arch/ChangedScopeTest.java")).getChangedClasses());
+    }
+
+    private static String sourceFile(String className) {
+        return "src/main/java/" + className.replace('.', '/') + ".java";
+    }
+
+    private static Map<JavaClass, Set<String>> violationsByClass(EvaluationResult result) {
+        Map<JavaClass, Set<String>> violations = new HashMap<>();
+        ViolationHandler<Object> handler = (violatingObjects, message) -> violatingObjects.forEach(
+                violatingObject -> violations.computeIfAbsent(ownerOf(violatingObject), owner -> new HashSet<>()).add(message));
+        result.handleViolations(handler);
+        return violations;
+    }
+
+    private static JavaClass ownerOf(Object violatingObject) {
+        if (violatingObject instanceof JavaClass javaClass) {
+            return javaClass;
+        }
+        if (violatingObject instanceof Dependency dependency) {
+            return dependency.getOriginClass();
+        }
+        if (violatingObject instanceof JavaAccess<?> access) {
+            return access.getOriginOwner();
+        }
+        if (violatingObject instanceof JavaMember member) {
+            return member.getOwner();
+        }
+        throw new IllegalArgumentException("Unexpected violating object " + violatingObject);
+    }
+}
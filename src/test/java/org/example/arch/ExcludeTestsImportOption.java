@@ -1,12 +1,37 @@
 package org.example.arch;
 
 import com.tngtech.archunit.core.importer.Location;
+import org.example.arch.importer.PackageRootsImportOption;
+import org.example.arch.importer.PrunableImportOption;
 
-public class ExcludeTestsImportOption implements com.tngtech.archunit.core.importer.ImportOption {
+public class ExcludeTestsImportOption implements PrunableImportOption {
+
+    // Исключается только пакет с самими тестами архитектуры, а не любой путь, содержащий "arch"
+    private static final PackageRootsImportOption TESTS = PackageRootsImportOption.excluding("org.example.arch");
 
     @Override
     public boolean includes(Location location) {
-        return !location.contains("arch");
+        return TESTS.includes(location);
+    }
+
+    @Override
+    public boolean excludesSubtree(Location location) {
+        return TESTS.excludesSubtree(location);
+    }
+
+    @Override
+    public String fingerprint() {
+        return TESTS.fingerprint();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj != null && obj.getClass() == getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
     }
 
 }
@@ -0,0 +1,28 @@
+package org.example.arch;
+
+import io.qameta.allure.Allure;
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.runner.RuleCosts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+
+// Правила ArchitectureTest до первого нарушения, от самых дешевых по прошлой сборке (для pre-commit hook),
+// включается через -Darchunit.failFast=true [-Darchunit.failFast.costs=target/archunit-metrics/rule-metrics.json]
+@EnabledIfSystemProperty(named = "archunit.failFast", matches = "true")
+public class FailFastArchitectureTest {
+
+    @Test
+    @DisplayName("Ни одно правило ArchitectureTest не нарушено")
+    void no_rule_is_violated() {
+        ArchTestSuite suite = ArchTestSuite.of(ArchitectureTest.class);
+        Path costs = Path.of(System.getProperty("archunit.failFast.costs", RuleCosts.DEFAULT_FILE.toString()));
+
+        suite.findFirstFailure(suite.rules(), costs).ifPresent(result -> {
+            Allure.parameter("Нарушенное правило", result.ruleName());
+            throw new AssertionError(result.ruleName() + ": " + result.getFailureMessage());
+        });
+    }
+}
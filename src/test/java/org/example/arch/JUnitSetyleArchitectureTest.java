@@ -1,20 +1,16 @@
 package org.example.arch;
 
-import com.tngtech.archunit.core.domain.JavaClass;
-import com.tngtech.archunit.core.domain.JavaMethod;
-import com.tngtech.archunit.core.importer.ClassFileImporter;
-import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.lang.ArchRule;
-import com.tngtech.archunit.lang.ConditionEvents;
-import com.tngtech.archunit.lang.SimpleConditionEvent;
 import com.tngtech.archunit.lang.syntax.ArchRuleDefinition;
-import com.tngtech.archunit.library.Architectures;
-import com.tngtech.archunit.library.dependencies.SlicesRuleDefinition;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
 import org.example.EaistRequestContext;
 import org.example.Secure;
 import org.example.SecureMultiple;
+import org.example.arch.importer.ClassesImportCache;
+import org.example.arch.layer.LayeredArchitecture;
+import org.example.arch.metrics.RuleProfiler;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +23,11 @@ import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
+import static org.example.arch.condition.BoundedArchCondition.bounded;
+import static org.example.arch.condition.JooqConditions.executeUpdatesAndDeletesOnlyWithWhere;
+import static org.example.arch.condition.ParallelArchCondition.inParallel;
+import static org.example.arch.condition.SliceCycleConditions.beFreeOfSliceCycles;
+
 @Epic("АРМ ТК")
 @Feature("Архитектура приложения Backend")
 public class JUnitSetyleArchitectureTest {
@@ -48,28 +49,23 @@ public class JUnitSetyleArchitectureTest {
     private static final String SECURITY_PACKAGE = "ru.proitr.security";
 
 
-    private ClassFileImporter getBaseFileImporter() {
-        return new ClassFileImporter().withImportOption(location -> !location.contains("arch"));
+    private JavaClasses importClasses() {
+        return ClassesImportCache.importPackages(new ExcludeTestsImportOption(), CORE_PACKAGE);
     }
 
     @Test
     @DisplayName("Между пакетами отсутствуют циклические зависимости")
     void no_cycles_by_method_calls_between_slices() {
-        ArchRule rule = SlicesRuleDefinition.slices()
-                .matching("(" + CORE_PACKAGE + ").(*)..")
-                .namingSlices("Пакет $1.$2")
-                .should().beFreeOfCycles();
+        ArchRule rule = ArchRuleDefinition.classes()
+                .should(beFreeOfSliceCycles("(" + CORE_PACKAGE + ").(*)..", "Пакет $1.$2"));
 
-        rule.check(getBaseFileImporter()
-                .importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
     @DisplayName("Соблюдается слоеная архитектура приложения")
     void layered_architecture() {
-        ArchRule rule = Architectures.layeredArchitecture()
-                .consideringOnlyDependenciesInLayers()
-
+        ArchRule rule = ArchRuleDefinition.classes().should(LayeredArchitecture.layeredArchitecture()
                 .layer("Inbound")
                 .definedBy(
                         CONTROLLER_PACKAGE + "..",
@@ -106,9 +102,10 @@ public class JUnitSetyleArchitectureTest {
                 .whereLayer("Repository").mayOnlyBeAccessedByLayers("Service")
                 .whereLayer("Producer").mayOnlyBeAccessedByLayers("Service")
 
-                .whereLayer("JooqInfrastructure").mayOnlyBeAccessedByLayers("Repository");
+                .whereLayer("JooqInfrastructure").mayOnlyBeAccessedByLayers("Repository")
+                .toCondition());
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -120,7 +117,7 @@ public class JUnitSetyleArchitectureTest {
                 .dependOnClassesThat()
                 .resideInAPackage(DAO_PACKAGE + "..");
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -133,7 +130,7 @@ public class JUnitSetyleArchitectureTest {
                 .dependOnClassesThat()
                 .areAssignableTo(EaistRequestContext.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -148,7 +145,7 @@ public class JUnitSetyleArchitectureTest {
                 .andShould()
                 .haveSimpleNameEndingWith("Service");
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -159,7 +156,7 @@ public class JUnitSetyleArchitectureTest {
                 .should()
                 .beAnnotatedWith(Service.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -174,7 +171,7 @@ public class JUnitSetyleArchitectureTest {
                 .should()
                 .notHaveRawParameterTypes(Map.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -198,7 +195,7 @@ public class JUnitSetyleArchitectureTest {
                 .andShould()
                 .bePublic();
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -214,7 +211,7 @@ public class JUnitSetyleArchitectureTest {
                 .orShould()
                 .declareThrowableOfType(RuntimeException.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -227,7 +224,7 @@ public class JUnitSetyleArchitectureTest {
                 .beDeclaredInClassesThat()
                 .resideInAPackage(SERVICE_PACKAGE + "..");
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -239,7 +236,7 @@ public class JUnitSetyleArchitectureTest {
                 .orShould()
                 .beAnnotatedWith(Value.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -251,7 +248,7 @@ public class JUnitSetyleArchitectureTest {
                 .orShould()
                 .beAnnotatedWith(Value.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -268,7 +265,7 @@ public class JUnitSetyleArchitectureTest {
                         .dependOnClassesThat()
                         .resideInAPackage(JAKARTA_SERVLET_PACKAGE + "..");
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -280,7 +277,7 @@ public class JUnitSetyleArchitectureTest {
                 .orShould()
                 .callMethod(Executors.class, "newCachedThreadPool", ThreadFactory.class);
 
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+        RuleProfiler.check(rule, this::importClasses);
     }
 
     @Test
@@ -290,37 +287,8 @@ public class JUnitSetyleArchitectureTest {
                         .areAnnotatedWith(Repository.class)
                         .and()
                         .areNotAssignableTo(DAOImpl.class)
-                        .should(
-                                new ArchCondition<>(
-                                        "check methods with .execute() (dslContext.update() / dslContext.delete() " +
-                                                "have a condition where)"
-                                ) {
-                                    @Override
-                                    public void check(JavaClass javaClass, ConditionEvents conditionEvents) {
-                                        javaClass.getMethods()
-                                                .stream()
-                                                .filter(JavaMethod::isMethod)
-                                                .filter(method -> method.getCallsFromSelf()
-                                                        .stream()
-                                                        .anyMatch(call -> "execute".equals(call.getName())) &&
-                                                        method.getCallsFromSelf()
-                                                                .stream()
-                                                                .noneMatch(call -> "insertInto".equals(call.getName()))
-                                                )
-                                                .filter(method -> method.getCallsFromSelf()
-                                                        .stream()
-                                                        .noneMatch(call -> "where".equals(call.getName()))
-                                                )
-                                                .forEach(javaMethod -> conditionEvents.add(
-                                                        new SimpleConditionEvent(
-                                                                javaClass,
-                                                                false,
-                                                                javaMethod.getFullName() +
-                                                                        " possible doing .execute() without block where()")
-                                                ));
-                                    }
-                                });
-
-        rule.check(getBaseFileImporter().importPackages(CORE_PACKAGE));
+                        .should(bounded(inParallel(executeUpdatesAndDeletesOnlyWithWhere())));
+
+        RuleProfiler.check(rule, this::importClasses);
     }
 }
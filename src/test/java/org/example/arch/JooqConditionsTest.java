@@ -0,0 +1,57 @@
+package org.example.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.example.arch.condition.JooqConditions;
+import org.example.repository.BadRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Условия jOOQ на методах BadRepository
+public class JooqConditionsTest {
+
+    private final JavaClasses repository = new ClassFileImporter().importClasses(BadRepository.class);
+
+    @Test
+    @DisplayName("DELETE и UPDATE без where() внешнего запроса являются нарушением, с where() - нет")
+    void updates_and_deletes_require_where() {
+        String report = classes().should(JooqConditions.executeUpdatesAndDeletesOnlyWithWhere())
+                .evaluate(repository)
+                .getFailureReport()
+                .toString();
+
+        assertTrue(report.contains(".deleteEverything executes dslContext.deleteFrom()"), report);
+        // where() подзапроса не защищает внешний UPDATE
+        assertTrue(report.contains(".renameAll executes dslContext.update()"), report);
+        assertFalse(report.contains(".deleteOne "), report);
+        assertFalse(report.contains(".invokeBadRequest "), report);
+    }
+
+    @Test
+    @DisplayName("Цепочка UPDATE / DELETE, переданная дальше без execute(), не связывается с execute() других запросов")
+    void unfinished_chains_are_not_matched_with_other_executes() {
+        String report = classes().should(JooqConditions.executeUpdatesAndDeletesOnlyWithWhere())
+                .evaluate(repository)
+                .getFailureReport()
+                .toString();
+
+        assertFalse(report.contains(".renameLater "), report);
+        assertFalse(report.contains(".archiveBeforeDelete "), report);
+    }
+
+    @Test
+    @DisplayName("Запрос внутри цикла является нарушением")
+    void queries_inside_loops_are_reported() {
+        EvaluationResult result = classes().should(JooqConditions.notQueryDatabaseInsideLoops("org.example.dao"))
+                .evaluate(repository);
+        String report = result.getFailureReport().toString();
+
+        assertTrue(report.contains(".findEach calls org.jooq."), report);
+        assertFalse(report.contains(".deleteOne "), report);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.library.Architectures;
+import org.example.arch.synthetic.SyntheticCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.GeneratedCodebase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.example.arch.layer.LayeredArchitecture.layeredArchitecture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Слои на префиксном дереве против layeredArchitecture() из ArchUnit на синтетической кодовой базе
+public class LayeredArchitectureTest {
+
+    private static final String BASE = SyntheticCodebase.BASE_PACKAGE;
+
+    @Test
+    @DisplayName("Слои на префиксном дереве находят те же нарушения, что и ArchUnit")
+    void reports_same_violations_as_archunit(@TempDir Path directory) {
+        GeneratedCodebase codebase = SyntheticCodebase.ofSize(400).withViolations(2).generate(directory);
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory());
+
+        ArchRule trie = classes().should(layeredArchitecture()
+                .layer("Inbound").definedBy(BASE + ".controller..", BASE + ".listener..")
+                .layer("Service").definedBy(BASE + ".service..")
+                .layer("Repository").definedBy(BASE + ".repository..")
+                .layer("Dao").definedBy(BASE + ".generated..")
+                .layer("Unused").definedBy(BASE + ".unused..")
+                .whereLayer("Inbound").mayNotBeAccessedByAnyLayer()
+                .whereLayer("Service").mayOnlyBeAccessedByLayers("Inbound")
+                .whereLayer("Repository").mayOnlyBeAccessedByLayers("Service")
+                .whereLayer("Dao").mayOnlyBeAccessedByLayers("Repository")
+                .toCondition());
+        ArchRule archUnit = Architectures.layeredArchitecture()
+                .consideringOnlyDependenciesInLayers()
+                .layer("Inbound").definedBy(BASE + ".controller..", BASE + ".listener..")
+                .layer("Service").definedBy(BASE + ".service..")
+                .layer("Repository").definedBy(BASE + ".repository..")
+                .layer("Dao").definedBy(BASE + ".generated..")
+                .layer("Unused").definedBy(BASE + ".unused..")
+                .whereLayer("Inbound").mayNotBeAccessedByAnyLayer()
+                .whereLayer("Service").mayOnlyBeAccessedByLayers("Inbound")
+                .whereLayer("Repository").mayOnlyBeAccessedByLayers("Service")
+                .whereLayer("Dao").mayOnlyBeAccessedByLayers("Repository");
+
+        Set<String> expected = details(archUnit, classes);
+        assertFalse(expected.isEmpty(), "Synthetic codebase has no layer violations");
+        assertEquals(expected, details(trie, classes));
+    }
+
+    // Пояснение о нарушенном доступе между слоями есть только в сообщениях префиксного дерева
+    private static Set<String> details(ArchRule rule, JavaClasses classes) {
+        Set<String> details = new TreeSet<>();
+        for (String detail : rule.evaluate(classes).getFailureReport().getDetails()) {
+            int explanation = detail.indexOf(" (layer '");
+            details.add(explanation < 0 ? detail : detail.substring(0, explanation));
+        }
+        return details;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.arch;
+
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.runner.ShardReport;
+import org.example.arch.runner.ShardReport.ShardResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Сводный отчет по всем частям ShardedArchitectureTest, включается через -Darchunit.shard.merge=true
+@EnabledIfSystemProperty(named = "archunit.shard.merge", matches = "true")
+public class MergedShardReportTest {
+
+    @Test
+    @DisplayName("Правила ArchitectureTest соблюдаются во всех частях")
+    void all_shards_pass() {
+        List<ShardResult> results = ShardReport.merge(Integer.getInteger("archunit.shard.count", 1));
+
+        // Каждое правило проверено ровно одной частью: части разбили набор одинаково
+        Map<String, Long> checks = results.stream()
+                .collect(Collectors.groupingBy(ShardResult::ruleName, Collectors.counting()));
+        Map<String, Long> expected = ArchTestSuite.of(ArchitectureTest.class).rules().keySet().stream()
+                .collect(Collectors.toMap(Function.identity(), name -> 1L));
+        assertEquals(expected, checks);
+
+        String failures = results.stream()
+                .filter(ShardResult::failed)
+                .map(result -> "[shard " + result.shard() + "] " + result.ruleName() + ": " + result.message())
+                .collect(Collectors.joining(System.lineSeparator() + System.lineSeparator()));
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.arch;
+
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.runner.ParallelArchRuleRunner;
+import org.example.arch.runner.RuleResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Правила ArchitectureTest: движок ArchUnit их не запускает (@ArchIgnore), они проверяются здесь параллельно
+// через ArchTestSuite - с базовыми линиями нарушений, кэшем результатов и замерами RuleProfiler
+public class ParallelArchitectureTest {
+
+    @TestFactory
+    @DisplayName("Правила ArchitectureTest соблюдаются (параллельная проверка)")
+    Stream<DynamicTest> all_rules_of_architecture_test() {
+        ArchTestSuite suite = ArchTestSuite.of(ArchitectureTest.class);
+
+        List<RuleResult> results = suite.evaluate(new ParallelArchRuleRunner(), suite.rules());
+
+        return results.stream().map(result -> DynamicTest.dynamicTest(result.ruleName(), () -> {
+            if (result.hasFailed()) {
+                throw new AssertionError(result.getFailureMessage());
+            }
+        }));
+    }
+}
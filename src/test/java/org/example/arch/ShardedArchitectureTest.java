@@ -0,0 +1,35 @@
+package org.example.arch;
+
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.runner.ParallelArchRuleRunner;
+import org.example.arch.runner.RuleResult;
+import org.example.arch.runner.RuleShard;
+import org.example.arch.runner.ShardReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Часть правил ArchitectureTest для одного форка, включается через -Darchunit.shard.count=N -Darchunit.shard.index=i
+@EnabledIfSystemProperty(named = "archunit.shard.count", matches = "\\d+")
+public class ShardedArchitectureTest {
+
+    @TestFactory
+    @DisplayName("Правила ArchitectureTest из текущей части соблюдаются")
+    Stream<DynamicTest> rules_of_current_shard() {
+        ArchTestSuite suite = ArchTestSuite.of(ArchitectureTest.class);
+        RuleShard shard = RuleShard.fromSystemProperties();
+
+        List<RuleResult> results = suite.evaluate(new ParallelArchRuleRunner(), shard.select(suite.suiteClass(), suite.rules()));
+        ShardReport.write(shard.index(), results);
+
+        return results.stream().map(result -> DynamicTest.dynamicTest(result.ruleName(), () -> {
+            if (result.hasFailed()) {
+                throw new AssertionError(result.getFailureMessage());
+            }
+        }));
+    }
+}
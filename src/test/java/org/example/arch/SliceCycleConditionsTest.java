@@ -0,0 +1,87 @@
+package org.example.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.library.dependencies.SlicesRuleDefinition;
+import org.example.arch.synthetic.SyntheticCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.GeneratedCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.Violation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.example.arch.condition.SliceCycleConditions.beFreeOfSliceCycles;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Циклы между срезами на массивах int против beFreeOfCycles() из ArchUnit на синтетической кодовой базе
+public class SliceCycleConditionsTest {
+
+    private static final String CYCLE_PREFIX = "Cycle detected: ";
+    private static final String CYCLE_STEP = " ->";
+    private static final String COMPONENT_PREFIX = "  Slices in the same cycle component: ";
+
+    @Test
+    @DisplayName("Срезы в циклах совпадают с ArchUnit, о каждой компоненте сообщается один раз")
+    void reports_same_slices_as_archunit(@TempDir Path directory) {
+        GeneratedCodebase codebase = SyntheticCodebase.ofSize(2_000)
+                .withViolations(Violation.REPOSITORY_USES_SERVICE, 5)
+                .generate(directory);
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory());
+
+        // Срезы по слоям и по модулям внутри слоев
+        Map<String, String> sliceNamesByPackage = Map.of("ru.proitr.(*)..", "$1", "ru.proitr.(*).(*)..", "$1.$2");
+        sliceNamesByPackage.forEach((packageIdentifier, sliceName) -> {
+            EvaluationResult archUnit = SlicesRuleDefinition.slices().matching(packageIdentifier).namingSlices(sliceName)
+                    .should().beFreeOfCycles()
+                    .evaluate(classes);
+            EvaluationResult intGraph = classes().should(beFreeOfSliceCycles(packageIdentifier, sliceName))
+                    .evaluate(classes);
+
+            Set<String> expected = new TreeSet<>();
+            archUnit.getFailureReport().getDetails().forEach(detail -> expected.addAll(cycleOf(detail)));
+            assertFalse(expected.isEmpty(), "Synthetic codebase has no cycles between " + packageIdentifier);
+
+            Set<String> actual = new TreeSet<>();
+            for (String detail : intGraph.getFailureReport().getDetails()) {
+                Set<String> component = componentOf(detail);
+                // Компоненты не пересекаются
+                component.forEach(slice -> assertFalse(actual.contains(slice), slice + " is reported twice"));
+                actual.addAll(component);
+            }
+            assertEquals(expected, actual, packageIdentifier);
+        });
+    }
+
+    // Срезы цикла из строк "Cycle detected: a ->", "b ->", ..., "a"
+    private static Set<String> cycleOf(String detail) {
+        Set<String> slices = new TreeSet<>();
+        for (String line : detail.lines().toList()) {
+            // ArchUnit оставляет пробел после "->"
+            String slice = (line.startsWith(CYCLE_PREFIX) ? line.substring(CYCLE_PREFIX.length()) : line).strip();
+            boolean last = !slice.endsWith(CYCLE_STEP);
+            slices.add(last ? slice : slice.substring(0, slice.length() - CYCLE_STEP.length()));
+            if (last) {
+                break;
+            }
+        }
+        return slices;
+    }
+
+    private static Set<String> componentOf(String detail) {
+        Set<String> slices = cycleOf(detail);
+        detail.lines()
+                .filter(line -> line.startsWith(COMPONENT_PREFIX))
+                .map(line -> List.of(line.substring(COMPONENT_PREFIX.length()).split(", ")))
+                .forEach(slices::addAll);
+        return slices;
+    }
+}
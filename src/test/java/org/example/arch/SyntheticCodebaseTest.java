@@ -0,0 +1,94 @@
+package org.example.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.synthetic.SyntheticCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.GeneratedCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.Violation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Правила ArchitectureTest на сгенерированной кодовой базе в раскладке пакетов сервиса
+public class SyntheticCodebaseTest {
+
+    private static final int CLASS_COUNT = 400;
+    private static final int SMALL_CLASS_COUNT = 1_000;
+    private static final int LARGE_CLASS_COUNT = 4_000;
+    // Во сколько раз рост времени проверки может превышать рост числа классов
+    private static final double SUPERLINEAR_TOLERANCE = 2.0;
+
+    private final Map<String, ArchRule> rules = ArchTestSuite.of(ArchitectureTest.class).rules();
+
+    @Test
+    @DisplayName("Правила находят все заложенные в синтетическую кодовую базу нарушения")
+    void seeded_violations_are_reported(@TempDir Path directory) {
+        GeneratedCodebase codebase = SyntheticCodebase.ofSize(CLASS_COUNT).withViolations(2).generate(directory);
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory());
+
+        for (Violation violation : Violation.values()) {
+            String report = evaluate(violation, classes).getFailureReport().toString();
+            for (String className : codebase.getViolatingClasses(violation)) {
+                assertTrue(report.contains(className), violation + " in " + className + " is not reported:\n" + report);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Синтетическая кодовая база без заложенных нарушений соблюдает правила")
+    void clean_codebase_has_no_violations(@TempDir Path directory) {
+        GeneratedCodebase codebase = SyntheticCodebase.ofSize(CLASS_COUNT).generate(directory);
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory());
+
+        for (Violation violation : Violation.values()) {
+            EvaluationResult result = evaluate(violation, classes);
+            assertFalse(result.hasViolation(), result.getFailureReport().toString());
+        }
+    }
+
+    // Замер времени, включается через -Darchunit.scaling=true
+    @Test
+    @EnabledIfSystemProperty(named = "archunit.scaling", matches = "true")
+    @DisplayName("Время проверки правил растет не быстрее числа классов")
+    void rules_scale_linearly(@TempDir Path small, @TempDir Path large) {
+        JavaClasses smallClasses = new ClassFileImporter()
+                .importPath(SyntheticCodebase.ofSize(SMALL_CLASS_COUNT).withViolations(5).generate(small).directory());
+        JavaClasses largeClasses = new ClassFileImporter()
+                .importPath(SyntheticCodebase.ofSize(LARGE_CLASS_COUNT).withViolations(20).generate(large).directory());
+        double allowedRatio = SUPERLINEAR_TOLERANCE * LARGE_CLASS_COUNT / SMALL_CLASS_COUNT;
+
+        for (Violation violation : Violation.values()) {
+            long smallNanos = bestOfThree(violation, smallClasses);
+            long largeNanos = bestOfThree(violation, largeClasses);
+            double ratio = (double) largeNanos / smallNanos;
+            assertTrue(ratio <= allowedRatio, String.format("%s grows %.1f times from %d to %d classes",
+                    violation.getRule(), ratio, SMALL_CLASS_COUNT, LARGE_CLASS_COUNT));
+        }
+    }
+
+    private EvaluationResult evaluate(Violation violation, JavaClasses classes) {
+        return rules.get(violation.getRule()).allowEmptyShould(true).evaluate(classes);
+    }
+
+    // Первый прогон прогревает JIT и ленивые структуры графа ArchUnit
+    private long bestOfThree(Violation violation, JavaClasses classes) {
+        evaluate(violation, classes);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            evaluate(violation, classes);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
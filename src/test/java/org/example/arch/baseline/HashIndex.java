@@ -0,0 +1,113 @@
+package org.example.arch.baseline;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Множество 64-битных хэшей в бинарном файле: хэши отсортированы как беззнаковые числа,
+ * перед ними лежит таблица начала каждой корзины по старшим битам хэша. Корзин не меньше, чем хэшей,
+ * поэтому проверка наличия смотрит в среднем один элемент. Файл читается через memory-mapped I/O
+ * и в кучу не копируется.
+ */
+final class HashIndex {
+
+    static final HashIndex EMPTY = new HashIndex(0, IntBuffer.wrap(new int[]{0, 0}), LongBuffer.allocate(0));
+
+    private static final int MAGIC = 0x41524246;
+    private static final int VERSION = 1;
+    private static final int MAX_BUCKET_BITS = 24;
+
+    private final int bucketBits;
+    private final IntBuffer bucketStarts;
+    private final LongBuffer hashes;
+
+    private HashIndex(int bucketBits, IntBuffer bucketStarts, LongBuffer hashes) {
+        this.bucketBits = bucketBits;
+        this.bucketStarts = bucketStarts;
+        this.hashes = hashes;
+    }
+
+    static HashIndex read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalStateException("Unsupported violation baseline format in " + file);
+            }
+            int bucketBits = buffer.getInt();
+            int count = buffer.getInt();
+            int buckets = (1 << bucketBits) + 1;
+            IntBuffer bucketStarts = buffer.slice(buffer.position(), buckets * Integer.BYTES).asIntBuffer();
+            LongBuffer hashes = buffer.slice(buffer.position() + buckets * Integer.BYTES, count * Long.BYTES).asLongBuffer();
+            return new HashIndex(bucketBits, bucketStarts, hashes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read violation baseline " + file, e);
+        }
+    }
+
+    static void write(Path file, long[] hashes) {
+        // Сдвиг на Long.MIN_VALUE переводит беззнаковый порядок в знаковый, корзины по старшим битам идут подряд
+        long[] sorted = Arrays.stream(hashes).map(hash -> hash ^ Long.MIN_VALUE).sorted().distinct().map(hash -> hash ^ Long.MIN_VALUE).toArray();
+        int bucketBits = bucketBitsFor(sorted.length);
+        int[] bucketStarts = new int[(1 << bucketBits) + 1];
+        for (long hash : sorted) {
+            bucketStarts[bucketOf(hash, bucketBits) + 1]++;
+        }
+        for (int bucket = 1; bucket < bucketStarts.length; bucket++) {
+            bucketStarts[bucket] += bucketStarts[bucket - 1];
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(bucketBits);
+                out.writeInt(sorted.length);
+                for (int start : bucketStarts) {
+                    out.writeInt(start);
+                }
+                for (long hash : sorted) {
+                    out.writeLong(hash);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write violation baseline " + file, e);
+        }
+    }
+
+    boolean contains(long hash) {
+        int bucket = bucketOf(hash, bucketBits);
+        for (int i = bucketStarts.get(bucket), end = bucketStarts.get(bucket + 1); i < end; i++) {
+            if (hashes.get(i) == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return hashes.limit();
+    }
+
+    private static int bucketOf(long hash, int bucketBits) {
+        return bucketBits == 0 ? 0 : (int) (hash >>> (Long.SIZE - bucketBits));
+    }
+
+    // Наименьшая степень двойки, не меньшая числа хэшей
+    private static int bucketBitsFor(int count) {
+        return Math.min(MAX_BUCKET_BITS, count <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(count - 1));
+    }
+}
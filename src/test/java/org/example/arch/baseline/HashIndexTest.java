@@ -0,0 +1,120 @@
+package org.example.arch.baseline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Запись и чтение файла базовой линии нарушений
+public class HashIndexTest {
+
+    @Test
+    @DisplayName("Записанные хэши находятся после чтения, остальные нет")
+    void written_hashes_are_found(@TempDir Path directory) {
+        Random random = new Random(42);
+        long[] hashes = random.longs(10_000).toArray();
+        // Повторы записываются один раз
+        long[] withDuplicates = Arrays.copyOf(hashes, hashes.length + 100);
+        System.arraycopy(hashes, 0, withDuplicates, hashes.length, 100);
+        Path file = directory.resolve("rule.bin");
+
+        HashIndex.write(file, withDuplicates);
+        HashIndex index = HashIndex.read(file);
+
+        assertEquals(hashes.length, index.size());
+        Set<Long> written = new HashSet<>();
+        for (long hash : hashes) {
+            assertTrue(index.contains(hash), Long.toHexString(hash));
+            written.add(hash);
+        }
+        random.longs(10_000).filter(hash -> !written.contains(hash))
+                .forEach(hash -> assertFalse(index.contains(hash), Long.toHexString(hash)));
+    }
+
+    @Test
+    @DisplayName("Хэши в файле отсортированы как беззнаковые числа")
+    void hashes_are_sorted_as_unsigned(@TempDir Path directory) throws IOException {
+        long[] hashes = {-1L, Long.MIN_VALUE, Long.MAX_VALUE, 0L, 1L, -2L, Long.MIN_VALUE + 1};
+        Path file = directory.resolve("rule.bin");
+
+        HashIndex.write(file, hashes);
+
+        long[] stored = readHashes(file);
+        assertEquals(hashes.length, stored.length);
+        for (int i = 1; i < stored.length; i++) {
+            assertTrue(Long.compareUnsigned(stored[i - 1], stored[i]) < 0,
+                    Long.toHexString(stored[i - 1]) + " before " + Long.toHexString(stored[i]));
+        }
+        HashIndex index = HashIndex.read(file);
+        for (long hash : hashes) {
+            assertTrue(index.contains(hash), Long.toHexString(hash));
+        }
+    }
+
+    @Test
+    @DisplayName("Хэши на границах корзин попадают в свои корзины")
+    void hashes_on_bucket_boundaries_are_found(@TempDir Path directory) {
+        // Восемь хэшей - восемь корзин по трем старшим битам, хэши стоят на первом и последнем значении корзин
+        long[] hashes = {
+                0L,
+                0x1FFF_FFFF_FFFF_FFFFL,
+                0x2000_0000_0000_0000L,
+                0x7FFF_FFFF_FFFF_FFFFL,
+                0x8000_0000_0000_0000L,
+                0x9FFF_FFFF_FFFF_FFFFL,
+                0xE000_0000_0000_0000L,
+                0xFFFF_FFFF_FFFF_FFFFL
+        };
+        Path file = directory.resolve("rule.bin");
+
+        HashIndex.write(file, hashes);
+        HashIndex index = HashIndex.read(file);
+
+        for (long hash : hashes) {
+            assertTrue(index.contains(hash), Long.toHexString(hash));
+        }
+        for (long neighbour : new long[]{1L, 0x1FFF_FFFF_FFFF_FFFEL, 0x2000_0000_0000_0001L, 0x8000_0000_0000_0001L, 0xDFFF_FFFF_FFFF_FFFFL}) {
+            assertFalse(index.contains(neighbour), Long.toHexString(neighbour));
+        }
+    }
+
+    @Test
+    @DisplayName("Пустая базовая линия записывается и читается")
+    void empty_index_round_trip(@TempDir Path directory) {
+        Path file = directory.resolve("rule.bin");
+
+        HashIndex.write(file, new long[0]);
+        HashIndex index = HashIndex.read(file);
+
+        assertEquals(0, index.size());
+        assertFalse(index.contains(0L));
+        assertFalse(index.contains(-1L));
+        assertFalse(HashIndex.EMPTY.contains(Long.MIN_VALUE));
+    }
+
+    private static long[] readHashes(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            in.skipNBytes(2 * Integer.BYTES);
+            int bucketBits = in.readInt();
+            int count = in.readInt();
+            in.skipNBytes((long) ((1 << bucketBits) + 1) * Integer.BYTES);
+            long[] hashes = new long[count];
+            for (int i = 0; i < count; i++) {
+                hashes[i] = in.readLong();
+            }
+            return hashes;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.arch.baseline;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.example.arch.condition.BoundedArchCondition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Замороженные нарушения правил: существующие нарушения legacy-кода сохраняются в базовой линии
+ * и не считаются ошибкой, новые нарушения по-прежнему валят проверку.
+ * Каждое нарушение хранится 64-битным хэшем от идентификатора правила и строки нарушения,
+ * из которой убраны номера строк и номера анонимных классов и лямбд, поэтому правка кода рядом
+ * с нарушением не делает его новым. Базовая линия правила - отдельный файл {@link HashIndex}.
+ * <p>
+ * Базовая линия создается и обновляется через -Darchunit.baseline.update=true: в нее записываются все текущие
+ * нарушения правила. Исправленные нарушения сами из файла не удаляются, после исправлений базовую линию
+ * стоит обновить, чтобы они не могли вернуться. Обновлять базовую линию можно только полной проверкой,
+ * а не проверкой изменений. Директория задается -Darchunit.baseline.dir.
+ * <p>
+ * Правила наборов замораживает {@link org.example.arch.runner.ArchTestSuite} при сборе полей,
+ * поэтому базовые линии действуют во всех запусках набора, включая обычный ParallelArchitectureTest.
+ */
+public final class ViolationBaseline {
+
+    public static final Path DIRECTORY = Path.of(System.getProperty("archunit.baseline.dir", "archunit-baseline"));
+    private static final boolean UPDATE = Boolean.getBoolean("archunit.baseline.update");
+
+    private static final String FILE_EXTENSION = ".bin";
+    private static final Pattern SOURCE_LOCATION = Pattern.compile("\\(\\S+:\\d+\\)");
+    private static final Pattern SYNTHETIC_INDEX = Pattern.compile("\\$\\d+");
+    private static final Map<Path, HashIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private ViolationBaseline() {
+    }
+
+    /**
+     * Правило, нарушения которого из базовой линии ruleId не считаются нарушениями.
+     * Если базовой линии нет, правило проверяется как обычно.
+     */
+    public static ArchRule freeze(String ruleId, ArchRule rule) {
+        return new FrozenRule(ruleId, rule);
+    }
+
+    public static boolean isUpdating() {
+        return UPDATE;
+    }
+
+    /**
+     * Отпечаток всех базовых линий, входит в ключ кэша результатов правил.
+     */
+    public static byte[] fingerprint() {
+        MessageDigest digest = sha256();
+        if (!Files.isDirectory(DIRECTORY)) {
+            return digest.digest();
+        }
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(FILE_EXTENSION)).sorted().toList()) {
+                digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read violation baselines in " + DIRECTORY, e);
+        }
+        return digest.digest();
+    }
+
+    static long hash(String ruleId, String violation) {
+        String normalized = SYNTHETIC_INDEX.matcher(SOURCE_LOCATION.matcher(violation).replaceAll("")).replaceAll("\\$");
+        byte[] hash = sha256().digest((ruleId + '\n' + normalized.strip()).getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(hash).getLong();
+    }
+
+    private static HashIndex indexOf(String ruleId) {
+        Path file = fileOf(ruleId);
+        return Files.isRegularFile(file) ? INDEXES.computeIfAbsent(file, HashIndex::read) : HashIndex.EMPTY;
+    }
+
+    // Идентификатор правила - имя поля, поэтому подходит для имени файла
+    private static Path fileOf(String ruleId) {
+        return DIRECTORY.resolve(ruleId + FILE_EXTENSION);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class FrozenRule implements ArchRule {
+
+        private final String ruleId;
+        private final ArchRule rule;
+
+        private FrozenRule(String ruleId, ArchRule rule) {
+            this.ruleId = ruleId;
+            this.rule = rule;
+        }
+
+        @Override
+        public EvaluationResult evaluate(JavaClasses classes) {
+            if (UPDATE) {
+                // В базовую линию записываются все нарушения, в том числе сверх лимита отчета
+                EvaluationResult result = BoundedArchCondition.withoutLimit(() -> rule.evaluate(classes));
+                List<String> violations = result.getFailureReport().getDetails();
+                Path file = fileOf(ruleId);
+                HashIndex.write(file, violations.stream().mapToLong(violation -> hash(ruleId, violation)).toArray());
+                INDEXES.remove(file);
+                return result.filterDescriptionsMatching(violation -> false);
+            }
+            HashIndex baseline = indexOf(ruleId);
+            if (baseline.size() == 0) {
+                return rule.evaluate(classes);
+            }
+            Predicate<String> frozen = violation -> baseline.contains(hash(ruleId, violation));
+            // Ограниченные условия отбрасывают замороженные нарушения до подсчета лимита, остальные отсеиваются здесь
+            EvaluationResult result = BoundedArchCondition.skipping(frozen, () -> rule.evaluate(classes));
+            boolean[] filtered = {false};
+            EvaluationResult unfrozen = result.filterDescriptionsMatching(violation -> {
+                boolean isFrozen = frozen.test(violation);
+                filtered[0] |= isFrozen;
+                return !isFrozen;
+            });
+            // Фильтрация теряет сведения о числе нарушений сверх лимита, поэтому без изменений возвращается исходный результат
+            return filtered[0] ? unfrozen : result;
+        }
+
+        @Override
+        public void check(JavaClasses classes) {
+            Assertions.assertNoViolation(evaluate(classes));
+        }
+
+        @Override
+        public ArchRule because(String reason) {
+            return new FrozenRule(ruleId, rule.because(reason));
+        }
+
+        @Override
+        public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+            return new FrozenRule(ruleId, rule.allowEmptyShould(allowEmptyShould));
+        }
+
+        @Override
+        public ArchRule as(String newDescription) {
+            return new FrozenRule(ruleId, rule.as(newDescription));
+        }
+
+        @Override
+        public String getDescription() {
+            return rule.getDescription();
+        }
+
+        @Override
+        public String toString() {
+            return rule.toString();
+        }
+    }
+}
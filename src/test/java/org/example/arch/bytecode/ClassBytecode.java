@@ -0,0 +1,47 @@
+package org.example.arch.bytecode;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.Source;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Байткод импортированного класса в виде дерева ASM. ArchUnit не сохраняет порядок инструкций и переходы,
+ * поэтому правила, которым они нужны (цепочки вызовов, циклы), перечитывают class-файл по {@link Source}.
+ * Дерево строится один раз на класс и живет, пока жив импортированный класс.
+ */
+public final class ClassBytecode {
+
+    private static final Map<JavaClass, Optional<ClassNode>> CLASS_NODES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ClassBytecode() {
+    }
+
+    public static Optional<ClassNode> of(JavaClass javaClass) {
+        Optional<ClassNode> classNode = CLASS_NODES.get(javaClass);
+        if (classNode == null) {
+            classNode = javaClass.getSource().map(Source::getUri).map(ClassBytecode::read);
+            CLASS_NODES.putIfAbsent(javaClass, classNode);
+        }
+        return classNode;
+    }
+
+    private static ClassNode read(URI classFile) {
+        try (InputStream in = classFile.toURL().openStream()) {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(in).accept(classNode, ClassReader.SKIP_FRAMES);
+            return classNode;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read class file " + classFile, e);
+        }
+    }
+}
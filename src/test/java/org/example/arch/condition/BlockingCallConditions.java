@@ -0,0 +1,297 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Условия на отсутствие блокирующих вызовов в потоках, которые нельзя занимать ожиданием
+ * (потоки Kafka-консьюмеров и Tomcat). Граф вызовов обходится от обработчиков проверяемого класса
+ * ({@link #isHandler}) через сервисы и реализации интерфейсов, нарушением считается любой достижимый
+ * блокирующий вызов. Остальные методы класса (например, @Scheduled) выполняются в других потоках и не проверяются.
+ * Достижимость блокирующего вызова вычисляется один раз для каждого метода за вычисление правила,
+ * поэтому обход от проверяемого класса заходит только в методы, из которых блокирующий вызов достижим.
+ */
+public final class BlockingCallConditions {
+
+    public static final Set<BlockingCall> DEFAULT_BLOCKING_CALLS = Set.of(
+            new BlockingCall(Future.class, "get"),
+            new BlockingCall(CompletableFuture.class, "join"),
+            new BlockingCall(Thread.class, "sleep"),
+            new BlockingCall(CountDownLatch.class, "await")
+    );
+
+    private BlockingCallConditions() {
+    }
+
+    /**
+     * Обработчики Kafka: классы с @KafkaListener на самом классе или на любом из его методов.
+     */
+    public static DescribedPredicate<JavaClass> kafkaListeners() {
+        return DescribedPredicate.describe("Kafka listeners", javaClass -> javaClass.isAnnotatedWith(KafkaListener.class)
+                || javaClass.getMethods().stream().anyMatch(method -> method.isAnnotatedWith(KafkaListener.class)));
+    }
+
+    /**
+     * Обработчик, который выполняется в потоке консьюмера или запроса: метод с @KafkaListener или @KafkaHandler,
+     * метод с @RequestMapping (в том числе через @GetMapping и другие) или реализация такого метода интерфейса,
+     * на котором объявлен маппинг.
+     */
+    public static boolean isHandler(JavaMethod method) {
+        if (method.isAnnotatedWith(KafkaListener.class) || method.isAnnotatedWith(KafkaHandler.class) || isRequestMapping(method)) {
+            return true;
+        }
+        String[] parameterTypeNames = method.getRawParameterTypes()
+                .stream()
+                .map(JavaClass::getName)
+                .toArray(String[]::new);
+        return Stream.concat(method.getOwner().getAllRawSuperclasses().stream(), method.getOwner().getAllRawInterfaces().stream())
+                .map(supertype -> supertype.tryGetMethod(method.getName(), parameterTypeNames))
+                .flatMap(Optional::stream)
+                .anyMatch(BlockingCallConditions::isRequestMapping);
+    }
+
+    private static boolean isRequestMapping(JavaMethod method) {
+        return method.isAnnotatedWith(RequestMapping.class) || method.isMetaAnnotatedWith(RequestMapping.class);
+    }
+
+    public static ArchCondition<JavaClass> notReachBlockingCalls() {
+        return notReachBlockingCalls(DEFAULT_BLOCKING_CALLS);
+    }
+
+    public static ArchCondition<JavaClass> notReachBlockingCalls(Set<BlockingCall> blockingCalls) {
+        String description = blockingCalls.stream()
+                .map(BlockingCall::toString)
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return new ArchCondition<>("not reach blocking calls " + description) {
+            // Общая для потоков ParallelArchCondition, пересоздается на каждое вычисление правила
+            private volatile Reachability reachability = new Reachability(blockingCalls);
+
+            @Override
+            public void init(Collection<JavaClass> allObjectsToTest) {
+                reachability = new Reachability(blockingCalls);
+            }
+
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                Reachability reachability = this.reachability;
+                // Для каждого достигнутого метода запоминается вызов, через который до него дошли, чтобы восстановить путь
+                Map<JavaCodeUnit, JavaMethodCall> reachedBy = new HashMap<>();
+                Deque<JavaCodeUnit> queue = new ArrayDeque<>();
+                for (JavaMethod method : javaClass.getMethods()) {
+                    if (isHandler(method) && reachability.reachesBlockingCall(method)) {
+                        reachedBy.put(method, null);
+                        queue.add(method);
+                    }
+                }
+
+                while (!queue.isEmpty()) {
+                    JavaCodeUnit codeUnit = queue.poll();
+                    for (JavaMethodCall call : codeUnit.getMethodCallsFromSelf()) {
+                        if (reachability.isBlocking(call)) {
+                            events.add(SimpleConditionEvent.violated(javaClass, String.format(
+                                    "%s reaches blocking call %s via %s in %s",
+                                    javaClass.getName(), call.getTarget().getFullName(),
+                                    pathTo(codeUnit, reachedBy), call.getSourceCodeLocation())));
+                            continue;
+                        }
+                        targetsOf(call)
+                                .filter(target -> !reachedBy.containsKey(target) && reachability.reachesBlockingCall(target))
+                                .forEach(target -> {
+                                    reachedBy.put(target, call);
+                                    queue.add(target);
+                                });
+                    }
+                }
+            }
+
+            @Override
+            public void finish(ConditionEvents events) {
+                reachability = new Reachability(blockingCalls);
+            }
+        };
+    }
+
+    // Вызов метода интерфейса или базового класса может попасть в любую его переопределенную реализацию
+    private static Stream<JavaMethod> targetsOf(JavaMethodCall call) {
+        Optional<JavaMethod> target = call.getTarget().resolveMember();
+        if (target.isEmpty()) {
+            return Stream.empty();
+        }
+        JavaMethod method = target.get();
+        String[] parameterTypeNames = method.getRawParameterTypes()
+                .stream()
+                .map(JavaClass::getName)
+                .toArray(String[]::new);
+        Stream<JavaMethod> overrides = method.getOwner().getAllSubclasses()
+                .stream()
+                .map(subclass -> subclass.tryGetMethod(method.getName(), parameterTypeNames))
+                .flatMap(Optional::stream);
+        return Stream.concat(Stream.of(method), overrides);
+    }
+
+    private static String pathTo(JavaCodeUnit codeUnit, Map<JavaCodeUnit, JavaMethodCall> reachedBy) {
+        List<String> path = new ArrayList<>();
+        for (JavaCodeUnit current = codeUnit; current != null; ) {
+            path.add(current.getFullName());
+            JavaMethodCall call = reachedBy.get(current);
+            current = call == null ? null : call.getOrigin();
+        }
+        Collections.reverse(path);
+        return String.join(" -> ", path);
+    }
+
+    /**
+     * Достижимость блокирующего вызова из методов: вычисляется обходом в глубину с поиском компонент сильной связности
+     * (Тарьян), у методов одной компоненты результат общий. Готовые результаты разделяются между потоками,
+     * компонента записывается только целиком, поэтому параллельные обходы видят лишь окончательные значения.
+     */
+    private static final class Reachability {
+
+        private final Set<BlockingCall> blockingCalls;
+        private final Map<JavaCodeUnit, Boolean> reachesBlockingCall = new ConcurrentHashMap<>();
+
+        private Reachability(Set<BlockingCall> blockingCalls) {
+            this.blockingCalls = blockingCalls;
+        }
+
+        boolean isBlocking(JavaMethodCall call) {
+            return blockingCalls.stream().anyMatch(blockingCall -> blockingCall.matches(call));
+        }
+
+        boolean reachesBlockingCall(JavaCodeUnit codeUnit) {
+            Boolean known = reachesBlockingCall.get(codeUnit);
+            return known != null ? known : compute(codeUnit);
+        }
+
+        // Итеративный алгоритм Тарьяна, чтобы длинные цепочки вызовов не переполняли стек
+        private boolean compute(JavaCodeUnit start) {
+            Map<JavaCodeUnit, Visit> visits = new HashMap<>();
+            Deque<JavaCodeUnit> component = new ArrayDeque<>();
+            Deque<Visit> path = new ArrayDeque<>();
+            path.push(visit(start, visits, component));
+
+            while (!path.isEmpty()) {
+                Visit visit = path.peek();
+                if (visit.successors.hasNext()) {
+                    JavaCodeUnit successor = visit.successors.next();
+                    Visit successorVisit = visits.get(successor);
+                    Boolean known = reachesBlockingCall.get(successor);
+                    if (successorVisit != null && successorVisit.onStack) {
+                        visit.lowLink = Math.min(visit.lowLink, successorVisit.index);
+                    } else if (known != null) {
+                        visit.reaches |= known;
+                    } else if (successorVisit == null) {
+                        path.push(visit(successor, visits, component));
+                    }
+                    continue;
+                }
+                path.pop();
+                Visit parent = path.peek();
+                if (visit.lowLink == visit.index) {
+                    boolean reaches = completeComponent(visit, visits, component);
+                    if (parent != null) {
+                        parent.reaches |= reaches;
+                    }
+                } else if (parent != null) {
+                    parent.lowLink = Math.min(parent.lowLink, visit.lowLink);
+                    parent.reaches |= visit.reaches;
+                }
+            }
+            return reachesBlockingCall.get(start);
+        }
+
+        private Visit visit(JavaCodeUnit codeUnit, Map<JavaCodeUnit, Visit> visits, Deque<JavaCodeUnit> component) {
+            Visit visit = new Visit(visits.size(), successorsOf(codeUnit));
+            visit.reaches = codeUnit.getMethodCallsFromSelf().stream().anyMatch(this::isBlocking);
+            visits.put(codeUnit, visit);
+            component.push(codeUnit);
+            return visit;
+        }
+
+        private boolean completeComponent(Visit root, Map<JavaCodeUnit, Visit> visits, Deque<JavaCodeUnit> component) {
+            List<JavaCodeUnit> members = new ArrayList<>();
+            boolean reaches = false;
+            Visit member;
+            do {
+                JavaCodeUnit codeUnit = component.pop();
+                member = visits.get(codeUnit);
+                member.onStack = false;
+                reaches |= member.reaches;
+                members.add(codeUnit);
+            } while (member != root);
+            for (JavaCodeUnit codeUnit : members) {
+                reachesBlockingCall.put(codeUnit, reaches);
+            }
+            return reaches;
+        }
+
+        // Через сами блокирующие вызовы обход не идет, как и в проверке класса
+        private Iterator<JavaCodeUnit> successorsOf(JavaCodeUnit codeUnit) {
+            Set<JavaCodeUnit> successors = new HashSet<>();
+            for (JavaMethodCall call : codeUnit.getMethodCallsFromSelf()) {
+                if (!isBlocking(call)) {
+                    targetsOf(call).forEach(successors::add);
+                }
+            }
+            return successors.iterator();
+        }
+    }
+
+    private static final class Visit {
+        private final int index;
+        private final Iterator<JavaCodeUnit> successors;
+        private int lowLink;
+        private boolean onStack = true;
+        private boolean reaches;
+
+        private Visit(int index, Iterator<JavaCodeUnit> successors) {
+            this.index = index;
+            this.successors = successors;
+            this.lowLink = index;
+        }
+    }
+
+    /**
+     * Блокирующий метод: имя метода и тип, которому должен быть присваиваем владелец вызываемого метода.
+     */
+    public record BlockingCall(Class<?> owner, String methodName) {
+
+        boolean matches(JavaMethodCall call) {
+            return methodName.equals(call.getName()) && call.getTargetOwner().isAssignableTo(owner);
+        }
+
+        @Override
+        public String toString() {
+            return owner.getSimpleName() + "." + methodName + "()";
+        }
+    }
+}
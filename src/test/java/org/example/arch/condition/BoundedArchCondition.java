@@ -0,0 +1,127 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Обертка над условием, которая передает в отчет только первые limit нарушений правила, а остальные только считает.
+ * Вместе с {@link LazyConditionEvent} текст строится лишь для попавших в отчет нарушений, поэтому память
+ * не растет вместе с числом нарушений. В заголовке отчета указывается полное число нарушений.
+ * Оборачивать нужно условие правила целиком (снаружи {@link ParallelArchCondition}): внутри составного условия
+ * отброшенное нарушение изменило бы результат композиции. Лимит по умолчанию задается -Darchunit.condition.violationLimit.
+ */
+public final class BoundedArchCondition<T> extends ArchCondition<T> {
+
+    public static final String LIMIT_PROPERTY = "archunit.condition.violationLimit";
+    public static final int DEFAULT_LIMIT = Integer.getInteger(LIMIT_PROPERTY, 1000);
+
+    // Настройки вычисления правила в текущем потоке, задаются снаружи правила (например, базовой линией нарушений)
+    private static final ThreadLocal<Boolean> UNLIMITED = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Predicate<String>> SKIPPED_VIOLATION = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FAIL_FAST = ThreadLocal.withInitial(() -> false);
+
+    private final ArchCondition<T> condition;
+    private final int limit;
+    // init, check и finish одного вычисления правила идут в одном потоке, а одно правило может вычисляться параллельно
+    private final ThreadLocal<BoundedConditionEvents> evaluation = new ThreadLocal<>();
+
+    private BoundedArchCondition(ArchCondition<T> condition, int limit) {
+        super(condition.getDescription());
+        this.condition = condition;
+        this.limit = limit;
+    }
+
+    public static <T> BoundedArchCondition<T> bounded(ArchCondition<T> condition) {
+        return bounded(condition, DEFAULT_LIMIT);
+    }
+
+    public static <T> BoundedArchCondition<T> bounded(ArchCondition<T> condition, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Violation limit must be positive, but was " + limit);
+        }
+        return new BoundedArchCondition<>(condition, limit);
+    }
+
+    /**
+     * Вычисление, в котором ограниченные условия сообщают все нарушения, например для записи базовой линии.
+     */
+    public static <R> R withoutLimit(Supplier<R> evaluation) {
+        boolean previous = UNLIMITED.get();
+        UNLIMITED.set(true);
+        try {
+            return evaluation.get();
+        } finally {
+            UNLIMITED.set(previous);
+        }
+    }
+
+    /**
+     * Вычисление, в котором ограниченные условия отбрасывают нарушения, все строки которых подходят под skippedViolation,
+     * до подсчета лимита. Иначе уже известные нарушения могли бы занять весь лимит и скрыть новые.
+     */
+    public static <R> R skipping(Predicate<String> skippedViolation, Supplier<R> evaluation) {
+        Predicate<String> previous = SKIPPED_VIOLATION.get();
+        SKIPPED_VIOLATION.set(skippedViolation);
+        try {
+            return evaluation.get();
+        } finally {
+            SKIPPED_VIOLATION.set(previous);
+        }
+    }
+
+    /**
+     * Вычисление, в котором ограниченные условия бросают {@link FirstViolationException} на первом нарушении,
+     * а {@link ParallelArchCondition} внутри них не проверяет объекты заранее. Нужно, когда важен только факт нарушения.
+     */
+    public static <R> R failingFast(Supplier<R> evaluation) {
+        boolean previous = FAIL_FAST.get();
+        FAIL_FAST.set(true);
+        try {
+            return evaluation.get();
+        } finally {
+            FAIL_FAST.set(previous);
+        }
+    }
+
+    static boolean isFailingFast() {
+        return FAIL_FAST.get();
+    }
+
+    @Override
+    public void init(Collection<T> allObjectsToTest) {
+        BoundedConditionEvents bounded = new BoundedConditionEvents(
+                UNLIMITED.get() ? Integer.MAX_VALUE : limit, SKIPPED_VIOLATION.get(), FAIL_FAST.get());
+        evaluation.set(bounded);
+        // Параллельная проверка прямо под лимитом не хранит нарушения, которые все равно не попадут в отчет
+        if (condition instanceof ParallelArchCondition<T> parallel) {
+            parallel.init(allObjectsToTest, bounded);
+        } else {
+            condition.init(allObjectsToTest);
+        }
+    }
+
+    @Override
+    public void check(T item, ConditionEvents events) {
+        BoundedConditionEvents bounded = evaluation.get();
+        condition.check(item, bounded == null ? events : bounded.to(events));
+    }
+
+    @Override
+    public void finish(ConditionEvents events) {
+        BoundedConditionEvents bounded = evaluation.get();
+        evaluation.remove();
+        if (bounded == null) {
+            condition.finish(events);
+            return;
+        }
+        condition.finish(bounded.to(events));
+        if (bounded.unreported() > 0) {
+            events.setInformationAboutNumberOfViolations(String.format(
+                    "%d times, only the first %d are reported", bounded.violations(), limit));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.example.arch.condition.BoundedArchCondition.bounded;
+import static org.example.arch.condition.ParallelArchCondition.inParallel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ограниченная параллельная проверка сообщает те же нарушения и то же их число, что и последовательная
+public class BoundedArchConditionTest {
+
+    private static final int LIMIT = 3;
+    private static final int PARALLELISM = 4;
+
+    private final JavaClasses classes = new ClassFileImporter().importPackages("org.example");
+
+    @Test
+    @DisplayName("Параллельная проверка под лимитом сообщает первые нарушения и полное их число")
+    void parallel_check_reports_first_violations_and_total() {
+        EvaluationResult sequential = classes().should(bounded(everyClassViolates(), LIMIT)).evaluate(classes);
+        EvaluationResult parallel = classes().should(bounded(inParallel(everyClassViolates(), PARALLELISM), LIMIT)).evaluate(classes);
+
+        assertEquals(LIMIT, parallel.getFailureReport().getDetails().size());
+        assertEquals(sequential.getFailureReport().toString(), parallel.getFailureReport().toString());
+        assertTrue(parallel.getFailureReport().toString().contains(classes.size() + " times"), parallel.getFailureReport().toString());
+    }
+
+    @Test
+    @DisplayName("Пропускаемые нарушения не занимают лимит параллельной проверки")
+    void skipped_violations_do_not_take_parallel_limit() {
+        // Пропускаются нарушения всех классов, кроме последних по порядку проверки
+        Predicate<String> skipped = violation -> classes.stream().limit(classes.size() - LIMIT).anyMatch(javaClass -> violation.startsWith(javaClass.getName() + " "));
+        EvaluationResult sequential = BoundedArchCondition.skipping(skipped,
+                () -> classes().should(bounded(everyClassViolates(), LIMIT)).evaluate(classes));
+        EvaluationResult parallel = BoundedArchCondition.skipping(skipped,
+                () -> classes().should(bounded(inParallel(everyClassViolates(), PARALLELISM), LIMIT)).evaluate(classes));
+
+        assertEquals(LIMIT, parallel.getFailureReport().getDetails().size());
+        assertEquals(sequential.getFailureReport().toString(), parallel.getFailureReport().toString());
+    }
+
+    private static ArchCondition<JavaClass> everyClassViolates() {
+        return new ArchCondition<>("be checked") {
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                events.add(LazyConditionEvent.violated(javaClass, () -> javaClass.getName() + " is checked"));
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Счетчик нарушений одного вычисления правила поверх общих ConditionEvents: первые limit нарушений
+ * передаются дальше, остальные только считаются. Пропускаемые нарушения (если skippedViolation не null)
+ * не передаются и не считаются. В режиме failFast первое же учитываемое нарушение прерывает вычисление правила.
+ */
+final class BoundedConditionEvents implements ConditionEvents {
+
+    private final int limit;
+    private final Predicate<String> skippedViolation;
+    private final boolean failFast;
+    private ConditionEvents target;
+    private int violations;
+
+    BoundedConditionEvents(int limit, Predicate<String> skippedViolation, boolean failFast) {
+        this.limit = limit;
+        this.skippedViolation = skippedViolation;
+        this.failFast = failFast;
+    }
+
+    // Составные условия ArchUnit передают свои события для каждого объекта, поэтому получатель меняется между вызовами check
+    BoundedConditionEvents to(ConditionEvents target) {
+        this.target = target;
+        return this;
+    }
+
+    @Override
+    public void add(ConditionEvent event) {
+        if (!event.isViolation()) {
+            target.add(event);
+            return;
+        }
+        if (isSkipped(event)) {
+            return;
+        }
+        if (failFast) {
+            throw new FirstViolationException(event);
+        }
+        if (++violations <= limit) {
+            target.add(event);
+        }
+    }
+
+    @Override
+    public Optional<String> getInformationAboutNumberOfViolations() {
+        return target.getInformationAboutNumberOfViolations();
+    }
+
+    @Override
+    public void setInformationAboutNumberOfViolations(String informationAboutNumberOfViolations) {
+        target.setInformationAboutNumberOfViolations(informationAboutNumberOfViolations);
+    }
+
+    @Override
+    public Collection<ConditionEvent> getViolating() {
+        return target.getViolating();
+    }
+
+    @Override
+    public boolean containViolation() {
+        return target.containViolation();
+    }
+
+    // Текст нарушения строится здесь, только если есть что пропускать
+    boolean isSkipped(ConditionEvent event) {
+        return skippedViolation != null && event.getDescriptionLines().stream().allMatch(skippedViolation);
+    }
+
+    // Нарушения, которые отбросил буфер параллельной проверки, не попали бы в отчет, но входят в общее число
+    void countUnreported(int droppedViolations) {
+        violations += droppedViolations;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int violations() {
+        return violations;
+    }
+
+    int unreported() {
+        return Math.max(0, violations - limit);
+    }
+}
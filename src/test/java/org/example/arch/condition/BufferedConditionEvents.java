@@ -0,0 +1,83 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Локальный буфер событий одного потока, содержимое которого позже переносится в общие ConditionEvents.
+ * Если задан лимит ({@link ViolationLimit}), нарушения сверх него не хранятся, а только считаются.
+ */
+final class BufferedConditionEvents implements ConditionEvents {
+
+    private final ViolationLimit limit;
+    private final List<ConditionEvent> events = new ArrayList<>();
+    private int droppedViolations;
+    private String informationAboutNumberOfViolations;
+
+    BufferedConditionEvents(ViolationLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void add(ConditionEvent event) {
+        if (limit != null && event.isViolation()) {
+            if (limit.bounded.isSkipped(event)) {
+                return;
+            }
+            if (limit.remaining == 0) {
+                droppedViolations++;
+                return;
+            }
+            limit.remaining--;
+        }
+        events.add(event);
+    }
+
+    @Override
+    public Optional<String> getInformationAboutNumberOfViolations() {
+        return Optional.ofNullable(informationAboutNumberOfViolations);
+    }
+
+    @Override
+    public void setInformationAboutNumberOfViolations(String informationAboutNumberOfViolations) {
+        this.informationAboutNumberOfViolations = informationAboutNumberOfViolations;
+    }
+
+    @Override
+    public Collection<ConditionEvent> getViolating() {
+        return events.stream().filter(ConditionEvent::isViolation).toList();
+    }
+
+    @Override
+    public boolean containViolation() {
+        return events.stream().anyMatch(ConditionEvent::isViolation);
+    }
+
+    void replayTo(ConditionEvents target) {
+        events.forEach(target::add);
+        if (droppedViolations > 0 && target instanceof BoundedConditionEvents bounded) {
+            bounded.countUnreported(droppedViolations);
+        }
+    }
+
+    /**
+     * Лимит хранимых нарушений для буферов одной части объектов, которые проверяются в одном потоке по порядку.
+     * В отчет {@link BoundedConditionEvents} попадают только первые limit нарушений правила, а они всегда
+     * среди первых limit нарушений своей части, поэтому больше буферам части хранить не нужно.
+     */
+    static final class ViolationLimit {
+
+        private final BoundedConditionEvents bounded;
+        private int remaining;
+
+        ViolationLimit(BoundedConditionEvents bounded) {
+            this.bounded = bounded;
+            this.remaining = bounded.limit();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.lang.ConditionEvent;
+
+/**
+ * Прерывает вычисление правила на первом нарушении ограниченного условия в режиме {@link BoundedArchCondition#failingFast}.
+ * Сообщение - текст этого нарушения, стек не заполняется.
+ */
+public final class FirstViolationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    FirstViolationException(ConditionEvent violation) {
+        super("First violation: " + String.join(System.lineSeparator(), violation.getDescriptionLines()), null, false, false);
+    }
+}
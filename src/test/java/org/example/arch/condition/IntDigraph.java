@@ -0,0 +1,181 @@
+package org.example.arch.condition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ориентированный граф над вершинами 0..n-1 в сжатом виде (CSR): ребра вершины v лежат
+ * в targets[offsets[v]..offsets[v + 1]), кратные ребра и петли отбрасываются при построении.
+ */
+final class IntDigraph {
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+
+    private IntDigraph(int vertexCount, int[] offsets, int[] targets) {
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    int vertexCount() {
+        return vertexCount;
+    }
+
+    boolean hasEdge(int origin, int target) {
+        return Arrays.binarySearch(targets, offsets[origin], offsets[origin + 1], target) >= 0;
+    }
+
+    /**
+     * Компоненты сильной связности из двух и более вершин, найденные итеративным алгоритмом Тарьяна,
+     * чтобы глубина графа не упиралась в размер стека потока.
+     */
+    List<int[]> findCycleComponents() {
+        int[] index = new int[vertexCount];
+        int[] lowLink = new int[vertexCount];
+        boolean[] onStack = new boolean[vertexCount];
+        int[] stack = new int[vertexCount];
+        int[] callStack = new int[vertexCount];
+        int[] nextEdge = new int[vertexCount];
+        Arrays.fill(index, -1);
+        int stackSize = 0;
+        int nextIndex = 0;
+        List<int[]> components = new ArrayList<>();
+
+        for (int root = 0; root < vertexCount; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            nextEdge[root] = offsets[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int vertex = callStack[depth - 1];
+                if (nextEdge[vertex] < offsets[vertex + 1]) {
+                    int target = targets[nextEdge[vertex]++];
+                    if (index[target] == -1) {
+                        index[target] = lowLink[target] = nextIndex++;
+                        nextEdge[target] = offsets[target];
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callStack[depth++] = target;
+                    } else if (onStack[target]) {
+                        lowLink[vertex] = Math.min(lowLink[vertex], index[target]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[vertex]);
+                }
+                if (lowLink[vertex] == index[vertex]) {
+                    int start = stackSize;
+                    do {
+                        onStack[stack[--start]] = false;
+                    } while (stack[start] != vertex);
+                    if (stackSize - start > 1) {
+                        int[] component = Arrays.copyOfRange(stack, start, stackSize);
+                        Arrays.sort(component);
+                        components.add(component);
+                    }
+                    stackSize = start;
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Кратчайший цикл через вершину start внутри компоненты: поиск в ширину по ребрам между вершинами компоненты.
+     * Возвращает вершины цикла, начиная со start.
+     */
+    int[] shortestCycleThrough(int start, int[] component) {
+        int[] previous = new int[vertexCount];
+        Arrays.fill(previous, -1);
+        int[] queue = new int[component.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+                int target = targets[edge];
+                if (Arrays.binarySearch(component, target) < 0) {
+                    continue;
+                }
+                if (target == start) {
+                    return path(previous, start, vertex);
+                }
+                if (previous[target] == -1 && target != start) {
+                    previous[target] = vertex;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        throw new IllegalStateException("Vertex " + start + " is not on a cycle");
+    }
+
+    private static int[] path(int[] previous, int start, int last) {
+        int length = 1;
+        for (int vertex = last; vertex != start; vertex = previous[vertex]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int vertex = last, i = length - 1; vertex != start; vertex = previous[vertex], i--) {
+            path[i] = vertex;
+        }
+        path[0] = start;
+        return path;
+    }
+
+    /**
+     * Построитель графа: ребра копятся в одном массиве long (origin << 32 | target),
+     * затем сортируются, очищаются от повторов и раскладываются по вершинам.
+     */
+    static final class Builder {
+        private final int vertexCount;
+        private long[] edges = new long[64];
+        private int edgeCount;
+
+        Builder(int vertexCount) {
+            this.vertexCount = vertexCount;
+        }
+
+        void addEdge(int origin, int target) {
+            if (origin == target) {
+                return;
+            }
+            if (edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, edgeCount * 2);
+            }
+            edges[edgeCount++] = (long) origin << 32 | target;
+        }
+
+        IntDigraph build() {
+            long[] sorted = Arrays.copyOf(edges, edgeCount);
+            Arrays.sort(sorted);
+            int[] offsets = new int[vertexCount + 1];
+            int[] targets = new int[sorted.length];
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i > 0 && sorted[i] == sorted[i - 1]) {
+                    continue;
+                }
+                offsets[(int) (sorted[i] >>> 32) + 1]++;
+                targets[distinct++] = (int) sorted[i];
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                offsets[vertex + 1] += offsets[vertex];
+            }
+            return new IntDigraph(vertexCount, offsets, Arrays.copyOf(targets, distinct));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.arch.condition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Поиск компонент сильной связности и кратчайших циклов в IntDigraph
+public class IntDigraphTest {
+
+    @Test
+    @DisplayName("Петля не считается циклом и не попадает в граф")
+    void self_loop_is_not_a_cycle() {
+        IntDigraph.Builder builder = new IntDigraph.Builder(2);
+        builder.addEdge(0, 0);
+        builder.addEdge(0, 1);
+        IntDigraph graph = builder.build();
+
+        assertFalse(graph.hasEdge(0, 0));
+        assertTrue(graph.hasEdge(0, 1));
+        assertTrue(graph.findCycleComponents().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Две несвязанные компоненты находятся по отдельности, вершины вне циклов не попадают в компоненты")
+    void separate_components_are_found() {
+        IntDigraph.Builder builder = new IntDigraph.Builder(7);
+        // 0 <-> 1 -> 2 -> 3 -> 4 -> 2, 5 -> 0, 6 изолирована
+        builder.addEdge(0, 1);
+        builder.addEdge(1, 0);
+        builder.addEdge(1, 2);
+        builder.addEdge(2, 3);
+        builder.addEdge(3, 4);
+        builder.addEdge(4, 2);
+        builder.addEdge(5, 0);
+        builder.addEdge(0, 1);
+        List<int[]> components = builder.build().findCycleComponents();
+
+        assertEquals(2, components.size());
+        assertArrayEquals(new int[]{2, 3, 4}, components.get(0));
+        assertArrayEquals(new int[]{0, 1}, components.get(1));
+    }
+
+    @Test
+    @DisplayName("Длинный цикл находится без переполнения стека, кратчайший цикл в компоненте выбирается по хорде")
+    void long_cycle_is_found() {
+        int length = 200_000;
+        IntDigraph.Builder builder = new IntDigraph.Builder(length);
+        for (int vertex = 0; vertex < length; vertex++) {
+            builder.addEdge(vertex, (vertex + 1) % length);
+        }
+        builder.addEdge(2, 0);
+        IntDigraph graph = builder.build();
+
+        List<int[]> components = graph.findCycleComponents();
+        assertEquals(1, components.size());
+        assertEquals(length, components.get(0).length);
+        assertArrayEquals(new int[]{0, 1, 2}, graph.shortestCycleThrough(0, components.get(0)));
+        assertEquals(length, graph.shortestCycleThrough(100, components.get(0)).length);
+    }
+}
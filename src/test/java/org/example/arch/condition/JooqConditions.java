@@ -0,0 +1,208 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.SourceCodeLocation;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import org.example.arch.bytecode.ClassBytecode;
+import org.example.arch.index.CallNameIndex;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Условия для кода, работающего с базой данных через jOOQ.
+ */
+public final class JooqConditions {
+
+    private static final String JOOQ_PACKAGE = "org/jooq/";
+    private static final Set<String> DSL_CONTEXT_TYPES = Set.of("org/jooq/DSLContext", "org/jooq/impl/DefaultDSLContext");
+    private static final Set<String> MUTATIONS = Set.of("update", "delete", "deleteFrom");
+    private static final Set<String> WHERE_CLAUSES = Set.of("where", "whereExists", "whereNotExists");
+    // Шаги цепочек UPDATE / DELETE, where() подзапроса вызывается у шагов Select и не защищает внешний запрос
+    private static final String UPDATE_STEP_PREFIX = "org/jooq/Update";
+    private static final String DELETE_STEP_PREFIX = "org/jooq/Delete";
+    private static final String EXECUTE = "execute";
+    private static final String FETCH_PREFIX = "fetch";
+    private static final int EXECUTE_CALL = CallNameIndex.ordinalOf(EXECUTE);
+
+    private JooqConditions() {
+    }
+
+    /**
+     * Каждая цепочка DSLContext.update() / delete() до execute() содержит where(), whereExists() или whereNotExists().
+     * Цепочка прослеживается по потоку данных байткода: следующий вызов цепочки - вызов метода шага Update* / Delete*,
+     * получатель которого - результат предыдущего вызова. Поэтому execute() других запросов
+     * (например, dslContext.query(...).execute()) и where() вложенного select цепочку не затрагивают.
+     * Цепочка, значение которой ушло не в вызов шага (в переменную, аргумент метода, return), не проверяется.
+     */
+    public static ArchCondition<JavaClass> executeUpdatesAndDeletesOnlyWithWhere() {
+        return new ArchCondition<>("execute dslContext.update() / dslContext.delete() only with a where condition") {
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                // Байткод читается только у классов, где вообще есть вызов execute
+                boolean callsExecute = javaClass.getCodeUnits()
+                        .stream()
+                        .anyMatch(codeUnit -> CallNameIndex.callsOf(codeUnit).contains(EXECUTE_CALL));
+                if (!callsExecute) {
+                    return;
+                }
+                ClassBytecode.of(javaClass).ifPresent(classNode -> check(javaClass, classNode, events));
+            }
+
+            private void check(JavaClass javaClass, ClassNode classNode, ConditionEvents events) {
+                for (MethodNode method : classNode.methods) {
+                    List<MethodInsnNode> mutations = new ArrayList<>();
+                    for (AbstractInsnNode instruction : method.instructions) {
+                        if (instruction instanceof MethodInsnNode call
+                                && DSL_CONTEXT_TYPES.contains(call.owner) && MUTATIONS.contains(call.name)) {
+                            mutations.add(call);
+                        }
+                    }
+                    if (mutations.isEmpty()) {
+                        continue;
+                    }
+                    Map<AbstractInsnNode, MethodInsnNode> nextSteps = nextStepsOf(classNode, method);
+                    for (MethodInsnNode mutation : mutations) {
+                        boolean guarded = false;
+                        MethodInsnNode step = nextSteps.get(mutation);
+                        while (step != null && !EXECUTE.equals(step.name)) {
+                            guarded |= isMutationWhere(step);
+                            step = nextSteps.get(step);
+                        }
+                        if (step != null && !guarded) {
+                            // Текст строится только для попавших в отчет нарушений, узлы ASM в нем не удерживаются
+                            String methodName = method.name;
+                            String operation = mutation.name;
+                            int executeLine = lineOf(step);
+                            events.add(LazyConditionEvent.violated(javaClass, () -> String.format(
+                                    "%s.%s executes dslContext.%s() without where() in %s",
+                                    javaClass.getName(), methodName, operation,
+                                    SourceCodeLocation.of(javaClass, executeLine))));
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    // Для результата каждого вызова - вызов шага Update* / Delete*, который вызван прямо на нем
+    private static Map<AbstractInsnNode, MethodInsnNode> nextStepsOf(ClassNode classNode, MethodNode method) {
+        Frame<SourceValue>[] frames;
+        try {
+            frames = new Analyzer<>(new SourceInterpreter()).analyze(classNode.name, method);
+        } catch (AnalyzerException e) {
+            throw new IllegalStateException("Can't analyze " + classNode.name + "." + method.name + method.desc, e);
+        }
+        Map<AbstractInsnNode, MethodInsnNode> nextSteps = new HashMap<>();
+        for (int index = 0; index < method.instructions.size(); index++) {
+            Frame<SourceValue> frame = frames[index];
+            if (frame != null
+                    && method.instructions.get(index) instanceof MethodInsnNode call
+                    && call.getOpcode() != Opcodes.INVOKESTATIC
+                    && isMutationStep(call)) {
+                SourceValue receiver = frame.getStack(frame.getStackSize() - Type.getArgumentTypes(call.desc).length - 1);
+                if (receiver.insns.size() == 1) {
+                    nextSteps.put(receiver.insns.iterator().next(), call);
+                }
+            }
+        }
+        return nextSteps;
+    }
+
+    private static int lineOf(AbstractInsnNode instruction) {
+        for (AbstractInsnNode previous = instruction; previous != null; previous = previous.getPrevious()) {
+            if (previous instanceof LineNumberNode lineNumber) {
+                return lineNumber.line;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Внутри циклов нет обращений к DSLContext, методов fetch* запросов jOOQ и классов DAO.
+     * Цикл определяется по обратному переходу в байткоде, место вызова сообщается со строкой исходного кода.
+     */
+    public static ArchCondition<JavaClass> notQueryDatabaseInsideLoops(String daoPackage) {
+        String daoPackagePrefix = daoPackage.replace('.', '/') + "/";
+        return new ArchCondition<>("not query the database inside loops") {
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                ClassBytecode.of(javaClass).ifPresent(classNode -> check(javaClass, classNode, events));
+            }
+
+            private void check(JavaClass javaClass, ClassNode classNode, ConditionEvents events) {
+                for (MethodNode method : classNode.methods) {
+                    BitSet loopBodies = loopBodiesOf(method);
+                    if (loopBodies.isEmpty()) {
+                        continue;
+                    }
+                    int line = 0;
+                    for (int index = 0; index < method.instructions.size(); index++) {
+                        AbstractInsnNode instruction = method.instructions.get(index);
+                        if (instruction instanceof LineNumberNode lineNumber) {
+                            line = lineNumber.line;
+                        } else if (loopBodies.get(index)
+                                && instruction instanceof MethodInsnNode call
+                                && isDatabaseQuery(call, daoPackagePrefix)) {
+                            String methodName = method.name;
+                            String owner = call.owner;
+                            String callName = call.name;
+                            int callLine = line;
+                            events.add(LazyConditionEvent.violated(javaClass, () -> String.format(
+                                    "%s.%s calls %s.%s() inside a loop in %s",
+                                    javaClass.getName(), methodName, owner.replace('/', '.'), callName,
+                                    SourceCodeLocation.of(javaClass, callLine))));
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    // Тело цикла - инструкции от метки, на которую ведет обратный переход, до самого перехода
+    private static BitSet loopBodiesOf(MethodNode method) {
+        BitSet loopBodies = new BitSet(method.instructions.size());
+        for (AbstractInsnNode instruction : method.instructions) {
+            if (instruction instanceof JumpInsnNode jump) {
+                int from = method.instructions.indexOf(jump.label);
+                int to = method.instructions.indexOf(jump);
+                if (from <= to) {
+                    loopBodies.set(from, to + 1);
+                }
+            }
+        }
+        return loopBodies;
+    }
+
+    private static boolean isMutationWhere(MethodInsnNode call) {
+        return WHERE_CLAUSES.contains(call.name) && isMutationStep(call);
+    }
+
+    private static boolean isMutationStep(MethodInsnNode call) {
+        return call.owner.startsWith(UPDATE_STEP_PREFIX) || call.owner.startsWith(DELETE_STEP_PREFIX);
+    }
+
+    private static boolean isDatabaseQuery(MethodInsnNode call, String daoPackagePrefix) {
+        return DSL_CONTEXT_TYPES.contains(call.owner)
+                || call.owner.startsWith(JOOQ_PACKAGE) && call.name.startsWith(FETCH_PREFIX)
+                || call.owner.startsWith(daoPackagePrefix);
+    }
+}
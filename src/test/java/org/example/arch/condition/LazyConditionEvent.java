@@ -0,0 +1,68 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.lang.ConditionEvent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Событие условия, текст которого строится только при первом обращении, то есть только для попавших в отчет нарушений.
+ * Нарушения сверх лимита {@link BoundedArchCondition} так и не превращаются в строки.
+ * Поставщик текста не должен держать ссылки на большие временные структуры: он живет вместе с событием.
+ */
+public final class LazyConditionEvent implements ConditionEvent {
+
+    private final Object correspondingObject;
+    private final boolean violation;
+    private final Supplier<String> messageSupplier;
+    private volatile String message;
+
+    private LazyConditionEvent(Object correspondingObject, boolean violation, Supplier<String> messageSupplier) {
+        this.correspondingObject = correspondingObject;
+        this.violation = violation;
+        this.messageSupplier = messageSupplier;
+    }
+
+    public static ConditionEvent violated(Object correspondingObject, Supplier<String> message) {
+        return new LazyConditionEvent(correspondingObject, true, message);
+    }
+
+    public static ConditionEvent satisfied(Object correspondingObject, Supplier<String> message) {
+        return new LazyConditionEvent(correspondingObject, false, message);
+    }
+
+    @Override
+    public boolean isViolation() {
+        return violation;
+    }
+
+    @Override
+    public ConditionEvent invert() {
+        return new LazyConditionEvent(correspondingObject, !violation, messageSupplier);
+    }
+
+    @Override
+    public List<String> getDescriptionLines() {
+        return Collections.singletonList(message());
+    }
+
+    @Override
+    public void handleWith(Handler handler) {
+        handler.handle(Collections.singleton(correspondingObject), message());
+    }
+
+    private String message() {
+        String rendered = message;
+        if (rendered == null) {
+            rendered = messageSupplier.get();
+            message = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{corresponding object=" + correspondingObject + ", violation=" + violation + "}";
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Обертка над условием, которая проверяет все объекты параллельно еще в {@link #init(Collection)}:
+ * объекты делятся на части между потоками, события каждого объекта копятся в собственном буфере,
+ * а в {@link #check(Object, ConditionEvents)} буфер переносится в общие события. Порядок нарушений
+ * поэтому совпадает с последовательной проверкой. Метод check исходного условия должен быть потокобезопасным.
+ * Части проверяются в общем ForkJoinPool, поэтому число потоков не растет, когда параллельно вычисляется несколько правил.
+ * Внутри {@link BoundedArchCondition} каждая часть хранит не больше limit нарушений, остальные только считаются.
+ */
+public final class ParallelArchCondition<T> extends ArchCondition<T> {
+
+    static final String PARALLELISM_PROPERTY = "archunit.condition.parallelism";
+
+    private final ArchCondition<T> condition;
+    // Число частей, на которые делятся объекты
+    private final int parallelism;
+    // init, check и finish одного вычисления правила идут в одном потоке, а одно правило может вычисляться параллельно
+    private final ThreadLocal<Map<T, BufferedConditionEvents>> eventsByObject = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private ParallelArchCondition(ArchCondition<T> condition, int parallelism) {
+        super(condition.getDescription());
+        this.condition = condition;
+        this.parallelism = parallelism;
+    }
+
+    public static <T> ParallelArchCondition<T> inParallel(ArchCondition<T> condition) {
+        return inParallel(condition, Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static <T> ParallelArchCondition<T> inParallel(ArchCondition<T> condition, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, but was " + parallelism);
+        }
+        return new ParallelArchCondition<>(condition, parallelism);
+    }
+
+    @Override
+    public void init(Collection<T> allObjectsToTest) {
+        init(allObjectsToTest, null);
+    }
+
+    // bounded - события ограниченного условия, которое напрямую оборачивает это, если оно есть
+    void init(Collection<T> allObjectsToTest, BoundedConditionEvents bounded) {
+        Map<T, BufferedConditionEvents> events = eventsByObject.get();
+        events.clear();
+        try {
+            condition.init(allObjectsToTest);
+            checkAll(new ArrayList<>(allObjectsToTest), events, bounded);
+        } catch (RuntimeException | Error e) {
+            // finish после ошибки не вызывается, а буферы не должны оставаться привязанными к потоку
+            eventsByObject.remove();
+            throw e;
+        }
+    }
+
+    @Override
+    public void check(T item, ConditionEvents events) {
+        try {
+            BufferedConditionEvents buffer = eventsByObject.get().get(item);
+            if (buffer == null) {
+                condition.check(item, events);
+            } else {
+                buffer.replayTo(events);
+            }
+        } catch (RuntimeException | Error e) {
+            eventsByObject.remove();
+            throw e;
+        }
+    }
+
+    @Override
+    public void finish(ConditionEvents events) {
+        try {
+            condition.finish(events);
+        } finally {
+            eventsByObject.remove();
+        }
+    }
+
+    private void checkAll(List<T> objects, Map<T, BufferedConditionEvents> events, BoundedConditionEvents bounded) {
+        // При поиске первого нарушения объекты проверяются по очереди в check, чтобы остановиться на нарушении
+        if (BoundedArchCondition.isFailingFast()) {
+            return;
+        }
+        if (objects.size() < 2 || parallelism == 1) {
+            List<BufferedConditionEvents> buffers = checkChunk(objects, bounded);
+            for (int i = 0; i < objects.size(); i++) {
+                events.put(objects.get(i), buffers.get(i));
+            }
+            return;
+        }
+
+        int chunkSize = (objects.size() + parallelism - 1) / parallelism;
+        List<ForkJoinTask<List<BufferedConditionEvents>>> chunks = new ArrayList<>();
+        for (int from = 0; from < objects.size(); from += chunkSize) {
+            List<T> chunk = objects.subList(from, Math.min(from + chunkSize, objects.size()));
+            chunks.add(ForkJoinPool.commonPool().submit(() -> checkChunk(chunk, bounded)));
+        }
+        int index = 0;
+        for (ForkJoinTask<List<BufferedConditionEvents>> chunk : chunks) {
+            for (BufferedConditionEvents buffer : chunk.join()) {
+                events.put(objects.get(index++), buffer);
+            }
+        }
+    }
+
+    private List<BufferedConditionEvents> checkChunk(List<T> chunk, BoundedConditionEvents bounded) {
+        BufferedConditionEvents.ViolationLimit limit = bounded == null ? null : new BufferedConditionEvents.ViolationLimit(bounded);
+        List<BufferedConditionEvents> buffers = new ArrayList<>(chunk.size());
+        for (T object : chunk) {
+            BufferedConditionEvents buffer = new BufferedConditionEvents(limit);
+            condition.check(object, buffer);
+            buffers.add(buffer);
+        }
+        return buffers;
+    }
+}
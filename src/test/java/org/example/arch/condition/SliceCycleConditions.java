@@ -0,0 +1,188 @@
+package org.example.arch.condition;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvent;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Замена SlicesRuleDefinition.slices().matching(..).should().beFreeOfCycles() для больших кодовых баз.
+ * Срезы получают целочисленные номера, зависимости между ними хранятся в массивах int (CSR),
+ * циклы ищутся как компоненты сильной связности итеративным алгоритмом Тарьяна.
+ * Списки конкретных зависимостей строятся только для срезов из найденных циклов.
+ */
+public final class SliceCycleConditions {
+
+    // Как cycles.maxNumberOfDependenciesPerEdge в ArchUnit
+    static final int MAX_DEPENDENCIES_PER_EDGE = 20;
+
+    private SliceCycleConditions() {
+    }
+
+    /**
+     * Условие для всех классов: срезы, заданные идентификатором пакета с группами (например, "(ru.proitr).(*).."),
+     * не образуют циклов. В имени среза $1, $2, ... заменяются на группы идентификатора.
+     * О каждой компоненте сильной связности сообщается одним нарушением с кратчайшим циклом в ней.
+     */
+    public static ArchCondition<JavaClass> beFreeOfSliceCycles(String packageIdentifier, String sliceNamePattern) {
+        PackageMatcher packageMatcher = PackageMatcher.of(packageIdentifier);
+        return new ArchCondition<>("be free of cycles between slices matching '" + packageIdentifier + "'") {
+            // init, check и finish одного вычисления правила идут в одном потоке
+            private final ThreadLocal<List<ConditionEvent>> violations = ThreadLocal.withInitial(ArrayList::new);
+
+            @Override
+            public void init(Collection<JavaClass> allObjectsToTest) {
+                violations.set(new SliceGraph(allObjectsToTest, packageMatcher, sliceNamePattern).findCycles());
+            }
+
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+            }
+
+            @Override
+            public void finish(ConditionEvents events) {
+                violations.get().forEach(events::add);
+                violations.remove();
+            }
+        };
+    }
+
+    private static final class SliceGraph {
+        private static final int NO_SLICE = -1;
+        private static final String CYCLE_INDENT = "                ";
+
+        private final PackageMatcher packageMatcher;
+        private final String sliceNamePattern;
+        private final Map<List<String>, Integer> sliceIds = new HashMap<>();
+        private final Map<String, Integer> slicesByPackage = new HashMap<>();
+        private final List<List<String>> sliceGroups = new ArrayList<>();
+        private final List<List<JavaClass>> classesBySlice = new ArrayList<>();
+        private final Set<JavaClass> importedClasses;
+        private final IntDigraph graph;
+
+        private SliceGraph(Collection<JavaClass> classes, PackageMatcher packageMatcher, String sliceNamePattern) {
+            this.packageMatcher = packageMatcher;
+            this.sliceNamePattern = sliceNamePattern;
+            this.importedClasses = new HashSet<>(classes);
+            for (JavaClass javaClass : classes) {
+                int slice = sliceOf(javaClass.getPackageName(), true);
+                if (slice != NO_SLICE) {
+                    classesBySlice.get(slice).add(javaClass);
+                }
+            }
+
+            IntDigraph.Builder builder = new IntDigraph.Builder(sliceGroups.size());
+            for (int slice = 0; slice < classesBySlice.size(); slice++) {
+                for (JavaClass javaClass : classesBySlice.get(slice)) {
+                    for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                        int targetSlice = targetSliceOf(dependency);
+                        if (targetSlice != NO_SLICE) {
+                            builder.addEdge(slice, targetSlice);
+                        }
+                    }
+                }
+            }
+            this.graph = builder.build();
+        }
+
+        private List<ConditionEvent> findCycles() {
+            List<ConditionEvent> violations = new ArrayList<>();
+            for (int[] component : graph.findCycleComponents()) {
+                int[] cycle = graph.shortestCycleThrough(component[0], component);
+                List<String> names = Arrays.stream(cycle).mapToObj(this::nameOf).toList();
+                violations.add(SimpleConditionEvent.violated(names, describeCycle(cycle, component)));
+            }
+            return violations;
+        }
+
+        private String describeCycle(int[] cycle, int[] component) {
+            StringBuilder description = new StringBuilder("Cycle detected: ");
+            for (int slice : cycle) {
+                description.append(nameOf(slice)).append(" ->").append(System.lineSeparator()).append(CYCLE_INDENT);
+            }
+            description.append(nameOf(cycle[0]));
+            if (component.length > cycle.length) {
+                description.append(System.lineSeparator()).append("  Slices in the same cycle component: ")
+                        .append(Arrays.stream(component).mapToObj(this::nameOf).sorted().collect(Collectors.joining(", ")));
+            }
+            for (int i = 0; i < cycle.length; i++) {
+                int origin = cycle[i];
+                int target = cycle[(i + 1) % cycle.length];
+                description.append(System.lineSeparator())
+                        .append("  ").append(i + 1).append(". Dependencies of ").append(nameOf(origin));
+                dependenciesBetween(origin, target).forEach(dependency -> description.append(System.lineSeparator())
+                        .append("    - ").append(dependency.getDescription()));
+            }
+            return description.toString();
+        }
+
+        // Подробности нужны только для ребер найденного цикла, поэтому зависимости перебираются повторно лишь здесь
+        private List<Dependency> dependenciesBetween(int origin, int target) {
+            List<Dependency> dependencies = new ArrayList<>();
+            for (JavaClass javaClass : classesBySlice.get(origin)) {
+                for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                    if (targetSliceOf(dependency) == target) {
+                        dependencies.add(dependency);
+                        if (dependencies.size() == MAX_DEPENDENCIES_PER_EDGE) {
+                            return dependencies;
+                        }
+                    }
+                }
+            }
+            return dependencies;
+        }
+
+        // Как и в ArchUnit, срезы состоят только из импортированных классов
+        private int targetSliceOf(Dependency dependency) {
+            JavaClass target = dependency.getTargetClass().getBaseComponentType();
+            return importedClasses.contains(target) ? sliceOf(target.getPackageName(), false) : NO_SLICE;
+        }
+
+        private int sliceOf(String packageName, boolean create) {
+            Integer cached = slicesByPackage.get(packageName);
+            if (cached != null) {
+                return cached;
+            }
+            Optional<List<String>> groups = packageMatcher.match(packageName).map(PackageMatcher.TO_GROUPS);
+            if (groups.isEmpty()) {
+                slicesByPackage.put(packageName, NO_SLICE);
+                return NO_SLICE;
+            }
+            Integer slice = sliceIds.get(groups.get());
+            if (slice == null) {
+                if (!create) {
+                    return NO_SLICE;
+                }
+                slice = sliceGroups.size();
+                sliceIds.put(groups.get(), slice);
+                sliceGroups.add(groups.get());
+                classesBySlice.add(new ArrayList<>());
+            }
+            slicesByPackage.put(packageName, slice);
+            return slice;
+        }
+
+        private String nameOf(int slice) {
+            String name = sliceNamePattern;
+            List<String> groups = sliceGroups.get(slice);
+            for (int group = groups.size(); group >= 1; group--) {
+                name = name.replace("$" + group, groups.get(group - 1));
+            }
+            return name;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.arch.importer;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Снимок набора class-файлов: URI, размер, время изменения и SHA-256 содержимого каждого файла.
+ * Хранится в компактном бинарном виде в target/ и читается через memory-mapped I/O,
+ * по отпечатку снимка можно понять, что импортируемые классы не менялись с прошлой сборки.
+ * Содержимое перечитывается только у файлов, размер или время изменения которых отличаются от предыдущего снимка.
+ */
+public final class ClassFilesSnapshot {
+
+    static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("archunit.snapshot.dir", "target/archunit-snapshot"));
+
+    private static final int MAGIC = 0x41524348;
+    private static final int VERSION = 2;
+    private static final int HASH_LENGTH = 32;
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final byte[] fingerprint;
+    private final Map<URI, FileState> files;
+
+    private ClassFilesSnapshot(Map<URI, FileState> files) {
+        this.files = Collections.unmodifiableMap(files);
+        this.fingerprint = fingerprintOf(files);
+    }
+
+    public static ClassFilesSnapshot scan(Collection<Location> locations, Collection<? extends ImportOption> importOptions) {
+        return scan(locations, importOptions, Optional.empty());
+    }
+
+    public static ClassFilesSnapshot scan(Collection<Location> locations,
+                                          Collection<? extends ImportOption> importOptions,
+                                          Optional<ClassFilesSnapshot> previous) {
+        Map<URI, FileState> knownFiles = previous.map(snapshot -> snapshot.files).orElse(Map.of());
+        Map<URI, FileState> files = new TreeMap<>();
+        for (Location location : locations) {
+            if (location.isJar()) {
+                scanJar(location.asURI(), importOptions, knownFiles, files);
+            } else {
+                scanDirectory(Path.of(location.asURI()), importOptions, knownFiles, files);
+            }
+        }
+        return new ClassFilesSnapshot(files);
+    }
+
+    public static Optional<ClassFilesSnapshot> read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return Optional.empty();
+            }
+            int count = buffer.getInt();
+            Map<URI, FileState> files = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                byte[] uri = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(uri);
+                long size = buffer.getLong();
+                long lastModified = buffer.getLong();
+                byte[] hash = new byte[HASH_LENGTH];
+                buffer.get(hash);
+                files.put(URI.create(new String(uri, StandardCharsets.UTF_8)), new FileState(size, lastModified, hash));
+            }
+            return Optional.of(new ClassFilesSnapshot(files));
+        } catch (IOException | RuntimeException e) {
+            // Поврежденный или чужой снимок просто игнорируется, он будет перезаписан
+            return Optional.empty();
+        }
+    }
+
+    public void write(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(files.size());
+                for (Map.Entry<URI, FileState> entry : files.entrySet()) {
+                    byte[] uri = entry.getKey().toString().getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(uri.length);
+                    out.write(uri);
+                    out.writeLong(entry.getValue().size);
+                    out.writeLong(entry.getValue().lastModified);
+                    out.write(entry.getValue().contentHash);
+                }
+            }
+            // Несколько форков Surefire могут писать один и тот же снимок
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write class files snapshot " + file, e);
+        }
+    }
+
+    public byte[] getFingerprint() {
+        return fingerprint.clone();
+    }
+
+    public boolean hasSameContentAs(ClassFilesSnapshot other) {
+        return Arrays.equals(fingerprint, other.fingerprint);
+    }
+
+    public Set<URI> getClassFiles() {
+        return files.keySet();
+    }
+
+    public Optional<byte[]> getContentHash(URI classFile) {
+        return Optional.ofNullable(files.get(classFile)).map(state -> state.contentHash.clone());
+    }
+
+    /**
+     * Добавленные, измененные и удаленные относительно другого снимка class-файлы.
+     */
+    public Set<URI> getChangedClassFilesSince(ClassFilesSnapshot other) {
+        Set<URI> changed = new TreeSet<>();
+        files.forEach((uri, state) -> {
+            FileState otherState = other.files.get(uri);
+            if (otherState == null || !Arrays.equals(state.contentHash, otherState.contentHash)) {
+                changed.add(uri);
+            }
+        });
+        other.files.keySet().stream()
+                .filter(uri -> !files.containsKey(uri))
+                .forEach(changed::add);
+        return changed;
+    }
+
+    private static void scanDirectory(Path directory, Collection<? extends ImportOption> importOptions,
+                                      Map<URI, FileState> knownFiles, Map<URI, FileState> files) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path subdirectory, BasicFileAttributes attributes) {
+                    return isPruned(Location.of(subdirectory), importOptions) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (file.getFileName().toString().endsWith(CLASS_FILE_EXTENSION)) {
+                        Location classFile = Location.of(file);
+                        if (isIncluded(classFile, importOptions)) {
+                            URI uri = classFile.asURI();
+                            files.put(uri, stateOf(Path.of(uri), knownFiles.get(uri)));
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't scan class files in " + directory, e);
+        }
+    }
+
+    private static void scanJar(URI location, Collection<? extends ImportOption> importOptions,
+                                Map<URI, FileState> knownFiles, Map<URI, FileState> files) {
+        String jarUri = location.toString();
+        int separator = jarUri.indexOf("!/");
+        Path jarPath = Path.of(URI.create(jarUri.substring("jar:".length(), separator)));
+        String prefix = jarUri.substring(separator + 2);
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                if (entry.isDirectory() || !entry.getName().startsWith(prefix)
+                        || !entry.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    continue;
+                }
+                Location classFile = Location.of(URI.create("jar:" + jarPath.toUri() + "!/" + entry.getName()));
+                if (!isIncluded(classFile, importOptions)) {
+                    continue;
+                }
+                FileState known = knownFiles.get(classFile.asURI());
+                if (known != null && known.size == entry.getSize() && known.lastModified == entry.getTime()) {
+                    files.put(classFile.asURI(), known);
+                    continue;
+                }
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    byte[] hash = sha256().digest(in.readAllBytes());
+                    files.put(classFile.asURI(), new FileState(entry.getSize(), entry.getTime(), hash));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't scan class files in " + jarPath, e);
+        }
+    }
+
+    private static FileState stateOf(Path file, FileState known) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (known != null && known.size == size && known.lastModified == lastModified) {
+                return known;
+            }
+            return new FileState(size, lastModified, sha256().digest(Files.readAllBytes(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read class file " + file, e);
+        }
+    }
+
+    static boolean isPruned(Location location, Collection<? extends ImportOption> importOptions) {
+        return importOptions.stream()
+                .anyMatch(option -> option instanceof PrunableImportOption prunable && prunable.excludesSubtree(location));
+    }
+
+    private static boolean isIncluded(Location classFile, Collection<? extends ImportOption> importOptions) {
+        return importOptions.stream().allMatch(option -> option.includes(classFile));
+    }
+
+    private static byte[] fingerprintOf(Map<URI, FileState> files) {
+        MessageDigest digest = sha256();
+        files.forEach((uri, state) -> {
+            digest.update(uri.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(state.contentHash);
+        });
+        return digest.digest();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class FileState {
+        private final long size;
+        private final long lastModified;
+        private final byte[] contentHash;
+
+        private FileState(long size, long lastModified, byte[] contentHash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+    }
+}
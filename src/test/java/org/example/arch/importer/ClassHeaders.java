@@ -0,0 +1,92 @@
+package org.example.arch.importer;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Копии class-файлов без тел методов: остаются заголовки классов, поля, сигнатуры методов и аннотации.
+ * ArchUnit не умеет разбирать тела методов лениво, поэтому для правил, которым нужна только структура классов,
+ * импортируются эти копии: без обращений и вызовов импорт и граф классов заметно дешевле.
+ * Копии обновляются по снимку class-файлов, заново обрабатываются только измененные файлы.
+ */
+public final class ClassHeaders {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private ClassHeaders() {
+    }
+
+    /**
+     * Приводит директорию копий в соответствие со снимком. Имя копии строится по URI исходного class-файла,
+     * ArchUnit берет имя класса из самого байткода, поэтому раскладка по пакетам не нужна.
+     */
+    static Path update(Path directory, ClassFilesSnapshot current, Optional<ClassFilesSnapshot> previous) {
+        try {
+            if (previous.isEmpty()) {
+                // Без прошлого снимка нельзя понять, какие копии устарели, поэтому директория строится заново
+                deleteRecursively(directory);
+            }
+            Files.createDirectories(directory);
+            Set<URI> changed = previous.map(current::getChangedClassFilesSince).orElse(Set.of());
+            for (URI classFile : current.getClassFiles()) {
+                Path header = headerOf(directory, classFile);
+                if (changed.contains(classFile) || !Files.exists(header)) {
+                    Files.write(header, strip(read(classFile)));
+                }
+            }
+            // Удаленные class-файлы есть только в прошлом снимке
+            for (URI classFile : changed) {
+                if (current.getContentHash(classFile).isEmpty()) {
+                    Files.deleteIfExists(headerOf(directory, classFile));
+                }
+            }
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't update class headers in " + directory, e);
+        }
+    }
+
+    /**
+     * Копия class-файла без тел методов и фреймов.
+     */
+    public static byte[] strip(byte[] classFile) {
+        ClassWriter writer = new ClassWriter(0);
+        new ClassReader(classFile).accept(writer, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        return writer.toByteArray();
+    }
+
+    private static Path headerOf(Path directory, URI classFile) {
+        byte[] hash = ClassFilesSnapshot.sha256().digest(classFile.toString().getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(hash, 0, 12) + CLASS_FILE_EXTENSION);
+    }
+
+    private static byte[] read(URI classFile) throws IOException {
+        try (InputStream in = classFile.toURL().openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
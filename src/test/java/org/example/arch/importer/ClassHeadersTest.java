@@ -0,0 +1,55 @@
+package org.example.arch.importer;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import org.example.arch.ArchitectureTest;
+import org.example.arch.runner.ArchTestSuite;
+import org.example.arch.synthetic.SyntheticCodebase;
+import org.example.arch.synthetic.SyntheticCodebase.GeneratedCodebase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Структурные правила ArchitectureTest на импорте без тел методов против полного импорта
+public class ClassHeadersTest {
+
+    @Test
+    @DisplayName("Структурные правила находят одни и те же нарушения на импорте без тел методов и на полном импорте")
+    void structural_rules_report_same_violations_on_headers(@TempDir Path codebaseDirectory,
+                                                            @TempDir Path headersDirectory) throws IOException {
+        GeneratedCodebase codebase = SyntheticCodebase.ofSize(400).withViolations(2).generate(codebaseDirectory);
+        try (Stream<Path> classFiles = Files.walk(codebase.directory())) {
+            for (Path classFile : classFiles.filter(Files::isRegularFile).toList()) {
+                Path header = headersDirectory.resolve(codebase.directory().relativize(classFile));
+                Files.createDirectories(header.getParent());
+                Files.write(header, ClassHeaders.strip(Files.readAllBytes(classFile)));
+            }
+        }
+        JavaClasses classes = new ClassFileImporter().importPath(codebase.directory());
+        JavaClasses headers = new ClassFileImporter().importPath(headersDirectory);
+        assertEquals(classes.size(), headers.size());
+
+        ArchTestSuite suite = ArchTestSuite.of(ArchitectureTest.class);
+        assertFalse(suite.structuralRules().isEmpty());
+        boolean anyViolation = false;
+        for (String name : suite.structuralRules()) {
+            ArchRule rule = suite.rules().get(name).allowEmptyShould(true);
+            List<String> expected = rule.evaluate(classes).getFailureReport().getDetails();
+            assertEquals(expected, rule.evaluate(headers).getFailureReport().getDetails(), name);
+            anyViolation |= !expected.isEmpty();
+        }
+        // Заложенный UNANNOTATED_SERVICE находит структурное правило
+        assertTrue(anyViolation, "No structural rule reports a violation on the synthetic codebase");
+    }
+}
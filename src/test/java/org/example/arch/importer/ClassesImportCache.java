@@ -0,0 +1,216 @@
+package org.example.arch.importer;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.core.importer.Locations;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Общий для всех тестов архитектуры кэш импортированных классов.
+ * Один импорт по набору пакетов и ImportOption обслуживает все правила в рамках JVM,
+ * а снимок class-файлов в target/ позволяет понять, изменились ли классы с прошлой сборки.
+ * Запись кэша создается сканированием class-файлов, а сам импорт ArchUnit выполняется только при первом
+ * обращении к классам: тем, кому достаточно снимка (например, кэшу результатов правил), импорт не нужен.
+ * {@link #refresh} перечитывает только измененные файлы и переимпортирует классы лишь при реальных изменениях.
+ * {@link #importHeaders} импортирует те же классы без тел методов для правил, которым нужна только структура классов.
+ */
+public final class ClassesImportCache {
+
+    private static final Map<Key, ImportedClasses> CACHE = new ConcurrentHashMap<>();
+
+    private ClassesImportCache() {
+    }
+
+    public static JavaClasses importPackages(ImportOption importOption, String... packages) {
+        return importPackages(List.of(importOption), Set.of(packages));
+    }
+
+    public static JavaClasses importPackages(Collection<? extends ImportOption> importOptions,
+                                             Collection<String> packages) {
+        return imported(importOptions, packages).classes();
+    }
+
+    public static ImportedClasses imported(Collection<? extends ImportOption> importOptions,
+                                           Collection<String> packages) {
+        return CACHE.computeIfAbsent(
+                new Key(Set.copyOf(packages), List.copyOf(importOptions), false),
+                ClassesImportCache::importClasses
+        );
+    }
+
+    /**
+     * Классы, поля, сигнатуры и аннотации без тел методов: у классов нет обращений к полям, вызовов методов
+     * и зависимостей из кода, а {@link com.tngtech.archunit.core.domain.JavaClass#getSource()}
+     * указывает на копию class-файла без кода.
+     */
+    public static JavaClasses importHeaders(Collection<? extends ImportOption> importOptions,
+                                            Collection<String> packages) {
+        return CACHE.computeIfAbsent(
+                new Key(Set.copyOf(packages), List.copyOf(importOptions), true),
+                ClassesImportCache::importClasses
+        ).classes();
+    }
+
+    /**
+     * Снимок class-файлов набора пакетов без импорта классов. Сканирование запоминается в кэше,
+     * поэтому последующий импорт тех же пакетов файлы повторно не сканирует.
+     */
+    public static ClassFilesSnapshot snapshot(Collection<? extends ImportOption> importOptions,
+                                              Collection<String> packages) {
+        return imported(importOptions, packages).snapshot();
+    }
+
+    /**
+     * Сверяет class-файлы уже импортированного набора пакетов с их состоянием на диске.
+     * Если ни один файл не изменился, возвращается прежний импорт, иначе классы импортируются заново,
+     * а в результате доступен список измененных class-файлов.
+     */
+    public static ImportedClasses refresh(Collection<? extends ImportOption> importOptions,
+                                          Collection<String> packages) {
+        return CACHE.compute(
+                new Key(Set.copyOf(packages), List.copyOf(importOptions), false),
+                (key, cached) -> cached == null ? importClasses(key) : reimportIfChanged(key, cached)
+        );
+    }
+
+    public static void invalidateAll() {
+        CACHE.clear();
+    }
+
+    private static ImportedClasses importClasses(Key key) {
+        Set<Location> locations = key.locations();
+        Optional<ClassFilesSnapshot> previous = ClassFilesSnapshot.read(key.snapshotFile());
+        ClassFilesSnapshot current = ClassFilesSnapshot.scan(locations, key.importOptions(), previous);
+        boolean changed = previous.map(snapshot -> !snapshot.hasSameContentAs(current)).orElse(true);
+        return new ImportedClasses(() -> importLocations(key, locations, current, previous, changed), current, previous);
+    }
+
+    private static ImportedClasses reimportIfChanged(Key key, ImportedClasses cached) {
+        Set<Location> locations = key.locations();
+        ClassFilesSnapshot current = ClassFilesSnapshot.scan(locations, key.importOptions(), Optional.of(cached.snapshot()));
+        if (current.hasSameContentAs(cached.snapshot())) {
+            return cached;
+        }
+        // Граф классов ArchUnit неизменяем, поэтому при изменениях он строится заново целиком
+        return new ImportedClasses(() -> importLocations(key, locations, current, Optional.of(cached.snapshot()), true),
+                current, Optional.of(cached.snapshot()));
+    }
+
+    // Пакеты уже разрешены в Location при сканировании, повторно classpath не обходим
+    private static JavaClasses importLocations(Key key, Set<Location> locations, ClassFilesSnapshot current,
+                                               Optional<ClassFilesSnapshot> previous, boolean changed) {
+        JavaClasses classes = key.headersOnly()
+                // ImportOption уже применены при сканировании, в снимок попали только подходящие файлы
+                ? new ClassFileImporter().importPath(ClassHeaders.update(key.headersDirectory(), current, previous))
+                : new ClassFileImporter().withImportOptions(key.importOptions()).importLocations(locations);
+        // Снимок пишется после импорта: копии без тел методов, не обновленные из-за сбоя, обновятся в следующий раз.
+        // Без импорта снимок не пишется, и следующая сборка сравнивает классы все с той же прошлой сборкой
+        if (changed) {
+            current.write(key.snapshotFile());
+        }
+        return classes;
+    }
+
+    /**
+     * Импортированные классы вместе со снимком class-файлов, из которых они получены,
+     * и снимком, сохраненным предыдущей сборкой. Классы импортируются при первом вызове {@link #classes()}.
+     */
+    public static final class ImportedClasses {
+
+        private final Supplier<JavaClasses> importer;
+        private final ClassFilesSnapshot snapshot;
+        private final Optional<ClassFilesSnapshot> previousSnapshot;
+        private JavaClasses classes;
+
+        private ImportedClasses(Supplier<JavaClasses> importer,
+                                ClassFilesSnapshot snapshot,
+                                Optional<ClassFilesSnapshot> previousSnapshot) {
+            this.importer = importer;
+            this.snapshot = snapshot;
+            this.previousSnapshot = previousSnapshot;
+        }
+
+        public synchronized JavaClasses classes() {
+            if (classes == null) {
+                classes = importer.get();
+            }
+            return classes;
+        }
+
+        public ClassFilesSnapshot snapshot() {
+            return snapshot;
+        }
+
+        public Optional<ClassFilesSnapshot> previousSnapshot() {
+            return previousSnapshot;
+        }
+
+        public boolean isUnchangedSincePreviousBuild() {
+            return previousSnapshot.map(snapshot::hasSameContentAs).orElse(false);
+        }
+
+        public Set<URI> getChangedClassFiles() {
+            return previousSnapshot.map(snapshot::getChangedClassFilesSince).orElse(snapshot.getClassFiles());
+        }
+
+        public JavaClasses getChangedClasses() {
+            Set<URI> changedClassFiles = getChangedClassFiles();
+            return classes().that(DescribedPredicate.describe("changed since previous snapshot",
+                    javaClass -> javaClass.getSource()
+                            .map(source -> changedClassFiles.contains(source.getUri()))
+                            .orElse(false)));
+        }
+    }
+
+    // ImportOption сравниваются через equals, поэтому опции без состояния должны быть равны между собой
+    private record Key(Set<String> packages, List<ImportOption> importOptions, boolean headersOnly) {
+
+        // Директории и jar-архивы, целиком исключенные опциями, не сканируются и не импортируются
+        Set<Location> locations() {
+            Set<Location> locations = new LinkedHashSet<>();
+            packages.forEach(packageName -> Locations.ofPackage(packageName)
+                    .stream()
+                    .filter(location -> !ClassFilesSnapshot.isPruned(location, importOptions))
+                    .forEach(locations::add));
+            return locations;
+        }
+
+        Path snapshotFile() {
+            return ClassFilesSnapshot.DEFAULT_DIRECTORY.resolve(snapshotFileName() + ".bin");
+        }
+
+        Path headersDirectory() {
+            return ClassFilesSnapshot.DEFAULT_DIRECTORY.resolve(snapshotFileName() + "-headers");
+        }
+
+        String snapshotFileName() {
+            StringBuilder description = new StringBuilder();
+            new TreeSet<>(packages).forEach(packageName -> description.append(packageName).append(';'));
+            // У отсекающих опций в имя снимка входят их параметры, остальные опции различаются только классом
+            importOptions.forEach(option -> description.append(option.getClass().getName())
+                    .append(option instanceof PrunableImportOption prunable ? prunable.fingerprint() : "")
+                    .append(';'));
+            if (headersOnly) {
+                description.append("headers;");
+            }
+            byte[] hash = ClassFilesSnapshot.sha256().digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        }
+    }
+}
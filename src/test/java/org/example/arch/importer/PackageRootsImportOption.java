@@ -0,0 +1,166 @@
+package org.example.arch.importer;
+
+import com.tngtech.archunit.core.importer.Location;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ImportOption по корневым пакетам: включаемые и исключаемые пакеты компилируются в префиксное дерево
+ * по сегментам пути, для class-файла решает самый длинный совпавший корень. Если включаемые пакеты не заданы,
+ * включается все, что не исключено. Путь считается от корня classpath или от корня jar-архива, поэтому
+ * "arch" не совпадает ни с "search", ни с "archive", ни с директорией вне classpath.
+ * Решение кэшируется по директории, а поддеревья без включаемых классов отсекаются целиком.
+ */
+public final class PackageRootsImportOption implements PrunableImportOption {
+
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+    private static final List<String> CLASSPATH_DIRECTORIES = classpathDirectories();
+
+    private final Set<String> includedPackages;
+    private final Set<String> excludedPackages;
+    private final Node root = new Node();
+    private final Map<String, Boolean> decisionsByDirectory = new ConcurrentHashMap<>();
+
+    private PackageRootsImportOption(Set<String> includedPackages, Set<String> excludedPackages) {
+        this.includedPackages = Collections.unmodifiableSet(includedPackages);
+        this.excludedPackages = Collections.unmodifiableSet(excludedPackages);
+        includedPackages.forEach(packageName -> add(packageName, Rule.INCLUDE));
+        excludedPackages.forEach(packageName -> add(packageName, Rule.EXCLUDE));
+    }
+
+    public static PackageRootsImportOption including(String... packages) {
+        return new PackageRootsImportOption(new TreeSet<>(Arrays.asList(packages)), new TreeSet<>());
+    }
+
+    public static PackageRootsImportOption excluding(String... packages) {
+        return new PackageRootsImportOption(new TreeSet<>(), new TreeSet<>(Arrays.asList(packages)));
+    }
+
+    public PackageRootsImportOption andExcluding(String... packages) {
+        Set<String> excluded = new TreeSet<>(excludedPackages);
+        excluded.addAll(Arrays.asList(packages));
+        return new PackageRootsImportOption(new TreeSet<>(includedPackages), excluded);
+    }
+
+    @Override
+    public boolean includes(Location location) {
+        String path = relativePath(location.asURI().toString());
+        String directory = path.substring(0, path.lastIndexOf('/') + 1);
+        return decisionsByDirectory.computeIfAbsent(directory, key -> decide(key).included);
+    }
+
+    @Override
+    public boolean excludesSubtree(Location location) {
+        String path = relativePath(location.asURI().toString());
+        Decision decision = decide(path.isEmpty() || path.endsWith("/") ? path : path + "/");
+        return decision.fixed && !decision.included;
+    }
+
+    @Override
+    public String fingerprint() {
+        return "included=" + includedPackages + ", excluded=" + excludedPackages;
+    }
+
+    private Decision decide(String directory) {
+        boolean included = includedPackages.isEmpty();
+        Node node = root;
+        int start = 0;
+        int end;
+        while ((end = directory.indexOf('/', start)) >= 0) {
+            node = node.children.get(directory.substring(start, end));
+            if (node == null) {
+                return new Decision(included, true);
+            }
+            if (node.rule != null) {
+                included = node.rule == Rule.INCLUDE;
+            }
+            start = end + 1;
+        }
+        // Решение для поддерева окончательно, только если глубже нет других корней
+        return new Decision(included, node.children.isEmpty());
+    }
+
+    private void add(String packageName, Rule rule) {
+        Node node = root;
+        for (String segment : packageName.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        if (node.rule != null && node.rule != rule) {
+            throw new IllegalArgumentException("Package " + packageName + " is both included and excluded");
+        }
+        node.rule = rule;
+    }
+
+    // Путь class-файла от корня jar-архива (в том числе вложенного) или от директории classpath
+    private static String relativePath(String uri) {
+        int jarEntry = uri.lastIndexOf(JAR_ENTRY_SEPARATOR);
+        if (jarEntry >= 0) {
+            return uri.substring(jarEntry + JAR_ENTRY_SEPARATOR.length());
+        }
+        for (String directory : CLASSPATH_DIRECTORIES) {
+            if (uri.startsWith(directory)) {
+                return uri.substring(directory.length());
+            }
+        }
+        return "";
+    }
+
+    private static List<String> classpathDirectories() {
+        try {
+            return Collections.list(PackageRootsImportOption.class.getClassLoader().getResources(""))
+                    .stream()
+                    .map(URL::toString)
+                    .map(uri -> Location.of(URI.create(uri)).asURI().toString())
+                    .map(uri -> uri.endsWith("/") ? uri : uri + "/")
+                    .distinct()
+                    // Вложенные директории проверяются раньше объемлющих
+                    .sorted(Comparator.comparingInt(String::length).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't resolve classpath directories", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PackageRootsImportOption other
+                && includedPackages.equals(other.includedPackages)
+                && excludedPackages.equals(other.excludedPackages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(includedPackages, excludedPackages);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + fingerprint() + "}";
+    }
+
+    private enum Rule {
+        INCLUDE,
+        EXCLUDE
+    }
+
+    private record Decision(boolean included, boolean fixed) {
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Rule rule;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.arch.importer;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+
+/**
+ * ImportOption, которая умеет решать сразу за целое поддерево class-файлов: директорию или префикс jar-архива.
+ * Исключенные поддеревья не сканируются и не передаются в ClassFileImporter.
+ */
+public interface PrunableImportOption extends ImportOption {
+
+    /**
+     * true, если ни один class-файл внутри location не будет включен этой опцией.
+     */
+    boolean excludesSubtree(Location location);
+
+    /**
+     * Параметры опции, от которых зависит набор включаемых class-файлов. Входят в имя снимка импорта
+     * ({@link ClassesImportCache}), поэтому опции одного класса с разными параметрами не делят снимок.
+     */
+    String fingerprint();
+}
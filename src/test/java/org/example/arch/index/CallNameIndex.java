@@ -0,0 +1,79 @@
+package org.example.arch.index;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Индекс имен вызываемых методов: каждое имя получает порядковый номер, а для каждого метода
+ * один раз строится BitSet номеров всех имен, которые он вызывает. Проверка
+ * "вызывает ли метод execute / insertInto / where" после этого выполняется за O(1).
+ * Индекс строится по классу целиком при первом обращении и живет, пока жив импортированный класс.
+ */
+public final class CallNameIndex {
+
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+    // Ключ - полное имя метода, а не JavaCodeUnit: метод ссылается на класс и не дал бы выгрузить его из WeakHashMap
+    private static final Map<JavaClass, Map<String, BitSet>> CALLS_BY_CLASS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final BitSet NO_CALLS = new BitSet();
+
+    private CallNameIndex() {
+    }
+
+    public static int ordinalOf(String callName) {
+        return ORDINALS.computeIfAbsent(callName, name -> NEXT_ORDINAL.getAndIncrement());
+    }
+
+    public static CalledNames callsOf(JavaCodeUnit codeUnit) {
+        return new CalledNames(callsByCodeUnitOf(codeUnit.getOwner()).getOrDefault(codeUnit.getFullName(), NO_CALLS));
+    }
+
+    private static Map<String, BitSet> callsByCodeUnitOf(JavaClass javaClass) {
+        Map<String, BitSet> calls = CALLS_BY_CLASS.get(javaClass);
+        if (calls == null) {
+            // Индекс строится вне блокировки, чтобы параллельные условия не ждали друг друга
+            calls = index(javaClass);
+            Map<String, BitSet> existing = CALLS_BY_CLASS.putIfAbsent(javaClass, calls);
+            return existing != null ? existing : calls;
+        }
+        return calls;
+    }
+
+    private static Map<String, BitSet> index(JavaClass javaClass) {
+        Map<String, BitSet> calls = new HashMap<>();
+        for (JavaCodeUnit codeUnit : javaClass.getCodeUnits()) {
+            BitSet ordinals = new BitSet();
+            codeUnit.getCallsFromSelf().forEach(call -> ordinals.set(ordinalOf(call.getName())));
+            calls.put(codeUnit.getFullName(), ordinals);
+        }
+        return calls;
+    }
+
+    /**
+     * Набор имен, которые вызывает метод.
+     */
+    public static final class CalledNames {
+
+        private final BitSet ordinals;
+
+        private CalledNames(BitSet ordinals) {
+            this.ordinals = ordinals;
+        }
+
+        public boolean contains(int callNameOrdinal) {
+            return ordinals.get(callNameOrdinal);
+        }
+
+        public boolean contains(String callName) {
+            return contains(ordinalOf(callName));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.arch.index;
+
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Обратный индекс вызовов: для класса один раз собираются методы и конструкторы, которые вызывают его методы
+ * или конструкторы, с разбивкой по аннотациям вызывающего метода (EventListener, KafkaListener и т.п.).
+ * Проверки "класс создается", "класс обрабатывается методом с аннотацией" после этого выполняются за O(1)
+ * для любого числа правил. Индекс живет, пока жив импортированный класс.
+ */
+public final class CallerIndex {
+
+    // Хранятся только имена: JavaCodeUnit ссылается на граф классов и не дал бы выгрузить ключ из WeakHashMap
+    private static final Map<JavaClass, Callers> CALLERS_BY_CLASS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CallerIndex() {
+    }
+
+    public static Callers callersOf(JavaClass javaClass) {
+        Callers callers = CALLERS_BY_CLASS.get(javaClass);
+        if (callers == null) {
+            // Индекс строится вне блокировки, чтобы параллельные условия не ждали друг друга
+            callers = index(javaClass);
+            Callers existing = CALLERS_BY_CLASS.putIfAbsent(javaClass, callers);
+            return existing != null ? existing : callers;
+        }
+        return callers;
+    }
+
+    private static Callers index(JavaClass javaClass) {
+        Set<String> codeUnitCallers = new LinkedHashSet<>();
+        Map<String, Set<String>> callersByAnnotation = new HashMap<>();
+        for (JavaAccess<?> call : javaClass.getCodeUnitCallsToSelf()) {
+            JavaCodeUnit caller = call.getOwner();
+            codeUnitCallers.add(caller.getFullName());
+            for (JavaAnnotation<?> annotation : caller.getAnnotations()) {
+                callersByAnnotation.computeIfAbsent(annotation.getRawType().getName(), name -> new LinkedHashSet<>())
+                        .add(caller.getFullName());
+            }
+        }
+        Set<String> constructorCallers = new LinkedHashSet<>();
+        javaClass.getConstructorCallsToSelf().forEach(call -> constructorCallers.add(call.getOwner().getFullName()));
+
+        Map<String, List<String>> buckets = new HashMap<>();
+        callersByAnnotation.forEach((annotation, callers) -> buckets.put(annotation, List.copyOf(callers)));
+        return new Callers(List.copyOf(codeUnitCallers), List.copyOf(constructorCallers), buckets);
+    }
+
+    /**
+     * Полные имена методов и конструкторов, вызывающих класс.
+     */
+    public static final class Callers {
+
+        private final List<String> codeUnitCallers;
+        private final List<String> constructorCallers;
+        private final Map<String, List<String>> callersByAnnotation;
+
+        private Callers(List<String> codeUnitCallers, List<String> constructorCallers,
+                        Map<String, List<String>> callersByAnnotation) {
+            this.codeUnitCallers = codeUnitCallers;
+            this.constructorCallers = constructorCallers;
+            this.callersByAnnotation = callersByAnnotation;
+        }
+
+        public boolean isCalled() {
+            return !codeUnitCallers.isEmpty();
+        }
+
+        public boolean isConstructed() {
+            return !constructorCallers.isEmpty();
+        }
+
+        public boolean isCalledFromCodeUnitsAnnotatedWith(Class<? extends Annotation> annotation) {
+            return callersByAnnotation.containsKey(annotation.getName());
+        }
+
+        public List<String> getCodeUnitCallers() {
+            return codeUnitCallers;
+        }
+
+        public List<String> getConstructorCallers() {
+            return constructorCallers;
+        }
+
+        public List<String> getCallersAnnotatedWith(Class<? extends Annotation> annotation) {
+            return callersByAnnotation.getOrDefault(annotation.getName(), List.of());
+        }
+    }
+}
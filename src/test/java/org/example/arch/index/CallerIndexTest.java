@@ -0,0 +1,74 @@
+package org.example.arch.index;
+
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.example.events.BadEvent;
+import org.example.events.OrderCreatedEvent;
+import org.example.listener.OrderEventListener;
+import org.example.listener.OrderKafkaListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import static org.example.arch.index.CallerIndex.callersOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Обратный индекс вызовов совпадает с обратными обращениями ArchUnit
+public class CallerIndexTest {
+
+    private final JavaClasses classes = new ClassFileImporter().importPackages("org.example");
+
+    @Test
+    @DisplayName("Вызывающие методы разложены по аннотациям")
+    void callers_are_bucketed_by_annotation() {
+        CallerIndex.Callers callers = callersOf(classes.get(OrderCreatedEvent.class));
+
+        assertTrue(callers.isConstructed());
+        assertEquals(List.of(OrderEventListener.class.getName() + ".onOrderCreated(" + OrderCreatedEvent.class.getName() + ")"),
+                callers.getCallersAnnotatedWith(EventListener.class));
+        assertEquals(List.of(OrderKafkaListener.class.getName() + ".onMessage(java.lang.String)"),
+                callers.getCallersAnnotatedWith(KafkaListener.class));
+        assertEquals(callers.getCallersAnnotatedWith(KafkaListener.class), callers.getConstructorCallers());
+
+        CallerIndex.Callers unused = callersOf(classes.get(BadEvent.class));
+        assertFalse(unused.isCalled());
+        assertFalse(unused.isConstructed());
+        assertFalse(unused.isCalledFromCodeUnitsAnnotatedWith(EventListener.class));
+    }
+
+    @Test
+    @DisplayName("Индекс класса строится один раз")
+    void index_is_built_once_per_class() {
+        JavaClass event = classes.get(OrderCreatedEvent.class);
+
+        assertSame(callersOf(event), callersOf(event));
+    }
+
+    @Test
+    @DisplayName("Индекс совпадает с обращениями к классу по данным ArchUnit")
+    void index_matches_archunit_accesses() {
+        for (JavaClass javaClass : classes) {
+            CallerIndex.Callers callers = callersOf(javaClass);
+
+            assertEquals(!javaClass.getCodeUnitCallsToSelf().isEmpty(), callers.isCalled(), javaClass.getName());
+            assertEquals(!javaClass.getConstructorCallsToSelf().isEmpty(), callers.isConstructed(), javaClass.getName());
+            for (Class<? extends Annotation> annotation : List.of(EventListener.class, KafkaListener.class)) {
+                assertEquals(isCalledFromCodeUnitsAnnotatedWith(javaClass, annotation),
+                        callers.isCalledFromCodeUnitsAnnotatedWith(annotation), javaClass.getName() + " " + annotation.getSimpleName());
+            }
+        }
+    }
+
+    private static boolean isCalledFromCodeUnitsAnnotatedWith(JavaClass javaClass, Class<? extends Annotation> annotation) {
+        return javaClass.getCodeUnitCallsToSelf().stream().map(JavaAccess::getOwner).anyMatch(owner -> owner.isAnnotatedWith(annotation));
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.arch.layer;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Аналог Architectures.layeredArchitecture().consideringOnlyDependenciesInLayers(), в котором описание слоев
+ * один раз компилируется в префиксное дерево пакетов и матрицу разрешенных обращений слой x слой.
+ * Для каждой зависимости выполняется поиск слоя по имени пакета и одно обращение к матрице
+ * вместо сопоставления со всеми шаблонами пакетов.
+ * Поддерживаются только идентификаторы пакетов вида "pkg" и "pkg..".
+ * В отличие от ArchUnit, где класс может входить в несколько слоев сразу, класс относится к одному слою -
+ * с самым длинным подходящим идентификатором пакета. При пересекающихся описаниях слоев
+ * (например, "app.." и "app.api..") результаты могут расходиться с ArchUnit.
+ */
+public final class LayeredArchitecture {
+
+    private final Map<String, List<String>> layers = new LinkedHashMap<>();
+    private final Map<String, List<String>> allowedAccessors = new LinkedHashMap<>();
+    private boolean optionalLayers;
+
+    private LayeredArchitecture() {
+    }
+
+    public static LayeredArchitecture layeredArchitecture() {
+        return new LayeredArchitecture();
+    }
+
+    public LayerDefinition layer(String name) {
+        if (layers.containsKey(name)) {
+            throw new IllegalArgumentException("Layer " + name + " is already defined");
+        }
+        return new LayerDefinition(name);
+    }
+
+    // Как и в ArchUnit, по умолчанию пустой слой считается нарушением
+    public LayeredArchitecture withOptionalLayers(boolean optionalLayers) {
+        this.optionalLayers = optionalLayers;
+        return this;
+    }
+
+    public LayerAccessSpecification whereLayer(String name) {
+        requireLayer(name);
+        return new LayerAccessSpecification(name);
+    }
+
+    /**
+     * Условие для всех классов: зависимости между разными слоями должны быть разрешены описанием слоев,
+     * зависимости на классы вне слоев не проверяются.
+     */
+    public ArchCondition<JavaClass> toCondition() {
+        List<String> names = new ArrayList<>(layers.keySet());
+        int layerCount = names.size();
+        PackageLayerTrie trie = new PackageLayerTrie();
+        for (int layer = 0; layer < layerCount; layer++) {
+            for (String packageIdentifier : layers.get(names.get(layer))) {
+                trie.add(packageIdentifier, layer);
+            }
+        }
+
+        // allowed[origin * layerCount + target]; слои без ограничений доступны всем
+        boolean[] allowed = new boolean[layerCount * layerCount];
+        Arrays.fill(allowed, true);
+        allowedAccessors.forEach((target, accessors) -> {
+            int targetLayer = names.indexOf(target);
+            for (int origin = 0; origin < layerCount; origin++) {
+                allowed[origin * layerCount + targetLayer] = origin == targetLayer || accessors.contains(names.get(origin));
+            }
+        });
+
+        return new ArchCondition<>("respect layers " + describe()) {
+            // init, check и finish одного вычисления правила идут в одном потоке, а одно правило может вычисляться параллельно
+            private final ThreadLocal<boolean[]> emptyLayers = new ThreadLocal<>();
+
+            @Override
+            public void init(Collection<JavaClass> allObjectsToTest) {
+                boolean[] empty = new boolean[layerCount];
+                Arrays.fill(empty, !optionalLayers);
+                allObjectsToTest.forEach(javaClass -> {
+                    int layer = trie.layerOf(javaClass.getPackageName());
+                    if (layer != PackageLayerTrie.NO_LAYER) {
+                        empty[layer] = false;
+                    }
+                });
+                emptyLayers.set(empty);
+            }
+
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                int originLayer = trie.layerOf(javaClass.getPackageName());
+                if (originLayer == PackageLayerTrie.NO_LAYER) {
+                    return;
+                }
+                for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                    JavaClass target = dependency.getTargetClass().getBaseComponentType();
+                    int targetLayer = trie.layerOf(target.getPackageName());
+                    if (targetLayer != PackageLayerTrie.NO_LAYER && !allowed[originLayer * layerCount + targetLayer]) {
+                        events.add(SimpleConditionEvent.violated(dependency, dependency.getDescription()
+                                + " (layer '" + names.get(originLayer) + "' may not access layer '" + names.get(targetLayer) + "')"));
+                    }
+                }
+            }
+
+            @Override
+            public void finish(ConditionEvents events) {
+                boolean[] empty = emptyLayers.get();
+                emptyLayers.remove();
+                if (empty == null) {
+                    return;
+                }
+                for (int layer = 0; layer < empty.length; layer++) {
+                    if (empty[layer]) {
+                        events.add(SimpleConditionEvent.violated(names.get(layer), "Layer '" + names.get(layer) + "' is empty"));
+                    }
+                }
+            }
+        };
+    }
+
+    private String describe() {
+        StringBuilder description = new StringBuilder();
+        layers.forEach((name, packages) -> description.append(System.lineSeparator())
+                .append("layer '").append(name).append("' (").append(String.join(", ", packages)).append(')'));
+        allowedAccessors.forEach((name, accessors) -> description.append(System.lineSeparator())
+                .append("where layer '").append(name).append("' ")
+                .append(accessors.isEmpty() ? "may not be accessed by any layer" : "may only be accessed by layers " + accessors));
+        return description.toString();
+    }
+
+    private void requireLayer(String name) {
+        if (!layers.containsKey(name)) {
+            throw new IllegalArgumentException("Layer " + name + " is not defined");
+        }
+    }
+
+    public final class LayerDefinition {
+        private final String name;
+
+        private LayerDefinition(String name) {
+            this.name = name;
+        }
+
+        public LayeredArchitecture definedBy(String... packageIdentifiers) {
+            layers.put(name, List.of(packageIdentifiers));
+            return LayeredArchitecture.this;
+        }
+    }
+
+    public final class LayerAccessSpecification {
+        private final String name;
+
+        private LayerAccessSpecification(String name) {
+            this.name = name;
+        }
+
+        public LayeredArchitecture mayNotBeAccessedByAnyLayer() {
+            allowedAccessors.put(name, List.of());
+            return LayeredArchitecture.this;
+        }
+
+        public LayeredArchitecture mayOnlyBeAccessedByLayers(String... layerNames) {
+            Arrays.stream(layerNames).forEach(LayeredArchitecture.this::requireLayer);
+            allowedAccessors.put(name, List.of(layerNames));
+            return LayeredArchitecture.this;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.arch.layer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Префиксное дерево по сегментам имени пакета, в узлах которого записан порядковый номер слоя.
+ * Поддерживаются шаблоны "pkg" (только сам пакет) и "pkg.." (пакет и все подпакеты),
+ * при пересечении шаблонов побеждает самый длинный. Результат поиска кэшируется по имени пакета.
+ */
+final class PackageLayerTrie {
+
+    static final int NO_LAYER = -1;
+
+    private static final String SUBPACKAGES = "..";
+
+    private final Node root = new Node();
+    private final Map<String, Integer> layersByPackage = new ConcurrentHashMap<>();
+
+    void add(String packageIdentifier, int layer) {
+        boolean withSubpackages = packageIdentifier.endsWith(SUBPACKAGES);
+        String packageName = withSubpackages
+                ? packageIdentifier.substring(0, packageIdentifier.length() - SUBPACKAGES.length())
+                : packageIdentifier;
+        if (packageName.isEmpty() || packageName.contains("*") || packageName.contains("(")
+                || packageName.contains("..") || packageName.startsWith(".") || packageName.endsWith(".")) {
+            throw new IllegalArgumentException("Only 'package' and 'package..' identifiers are supported, but was " + packageIdentifier);
+        }
+
+        Node node = root;
+        for (String segment : packageName.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        int previous = withSubpackages ? node.subpackagesLayer : node.packageLayer;
+        if (previous != NO_LAYER && previous != layer) {
+            throw new IllegalArgumentException("Package identifier " + packageIdentifier + " is defined in several layers");
+        }
+        if (withSubpackages) {
+            node.subpackagesLayer = layer;
+        } else {
+            node.packageLayer = layer;
+        }
+        layersByPackage.clear();
+    }
+
+    int layerOf(String packageName) {
+        Integer layer = layersByPackage.get(packageName);
+        if (layer == null) {
+            layer = lookup(packageName);
+            layersByPackage.put(packageName, layer);
+        }
+        return layer;
+    }
+
+    private int lookup(String packageName) {
+        if (packageName.isEmpty()) {
+            return NO_LAYER;
+        }
+        int layer = NO_LAYER;
+        Node node = root;
+        int start = 0;
+        while (node != null) {
+            int end = packageName.indexOf('.', start);
+            String segment = end < 0 ? packageName.substring(start) : packageName.substring(start, end);
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            if (node.subpackagesLayer != NO_LAYER) {
+                layer = node.subpackagesLayer;
+            }
+            if (end < 0) {
+                return node.packageLayer != NO_LAYER ? node.packageLayer : layer;
+            }
+            start = end + 1;
+        }
+        return layer;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private int packageLayer = NO_LAYER;
+        private int subpackagesLayer = NO_LAYER;
+    }
+}
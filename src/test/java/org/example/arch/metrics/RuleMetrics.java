@@ -0,0 +1,88 @@
+package org.example.arch.metrics;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.arch.report.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Затраты на проверку одного правила: время импорта и вычисления, объем импортированных классов,
+ * число нарушений и память, выделенная потоком проверки. Если JVM не считает выделения по потокам, в них -1,
+ * если правило упало при вычислении, -1 в числе нарушений.
+ * Правило определяется классом набора (suite) и именем поля или метода теста в нем (ruleName).
+ */
+public record RuleMetrics(String suite,
+                          @JsonProperty("rule") String ruleName,
+                          long importNanos,
+                          long evaluationNanos,
+                          int importedClasses,
+                          long importedMembers,
+                          int violations,
+                          long importAllocatedBytes,
+                          long evaluationAllocatedBytes) {
+
+    @JsonIgnore
+    public long getImportMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(importNanos);
+    }
+
+    @JsonIgnore
+    public long getEvaluationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(evaluationNanos);
+    }
+
+    public String toJson() {
+        return Json.toJson(this);
+    }
+
+    public static void writeSummary(Path file, Collection<RuleMetrics> metrics) {
+        Json.write(file, new Summary(List.copyOf(metrics)));
+    }
+
+    /**
+     * Заменяет в отчете замеры тех же правил тех же наборов, замеры остальных правил сохраняются:
+     * прогон одного набора или части правил не стирает историю других. Отчет блокируется на время слияния,
+     * поэтому форки Surefire, завершающиеся одновременно, не теряют замеры друг друга.
+     */
+    public static synchronized void mergeSummary(Path file, Collection<RuleMetrics> metrics) {
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try {
+            Files.createDirectories(lockFile.toAbsolutePath().getParent());
+            try (FileChannel lock = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lock.lock()) {
+                Map<RuleId, RuleMetrics> merged = new LinkedHashMap<>();
+                if (Files.isRegularFile(file)) {
+                    Json.tryRead(file, Summary.class).ifPresent(summary -> summary.rules()
+                            .forEach(rule -> merged.put(new RuleId(rule.suite(), rule.ruleName()), rule)));
+                }
+                metrics.forEach(rule -> merged.put(new RuleId(rule.suite(), rule.ruleName()), rule));
+                writeSummary(file, merged.values());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't merge rule metrics into " + file, e);
+        }
+    }
+
+    public static List<RuleMetrics> readSummary(Path file) {
+        return Json.read(file, Summary.class).rules();
+    }
+
+    // Общий отчет: {"rules":[...]}
+    private record Summary(List<RuleMetrics> rules) {
+    }
+
+    private record RuleId(String suite, String ruleName) {
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.arch.metrics;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.ViolationHandler;
+import io.qameta.allure.Allure;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Проверка правил с замером затрат: время импорта и вычисления, выделенная потоком память, число классов,
+ * членов классов и нарушений. Замеры прикладываются к текущему тесту Allure параметрами и JSON-вложением
+ * и собираются в общий JSON-отчет в target/, по которому можно следить за правилами от сборки к сборке.
+ * Отчет записывается один раз при завершении JVM, поэтому запись не попадает в замеры правил.
+ * Замеры в отчете привязаны к классу набора и имени правила в нем (поле ArchTestSuite или метод теста),
+ * а не к описанию правила, и сливаются с замерами других наборов ({@link RuleMetrics#mergeSummary}).
+ */
+public final class RuleProfiler {
+
+    public static final Path SUMMARY_FILE = Path.of(System.getProperty("archunit.metrics.file", "target/archunit-metrics/rule-metrics.json"));
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+    private static final List<RuleMetrics> SUMMARY = new ArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> writeSummary(SUMMARY_FILE), "rule-metrics-summary"));
+    }
+
+    private RuleProfiler() {
+    }
+
+    /**
+     * Аналог {@link ArchRule#check} для метода теста: набор - класс вызывающего метода, правило называется по его имени.
+     */
+    public static void check(ArchRule rule, Supplier<JavaClasses> importer) {
+        StackWalker.StackFrame test = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+                .walk(frames -> frames.skip(1).findFirst())
+                .orElseThrow();
+        ArchRule.Assertions.assertNoViolation(evaluate(test.getDeclaringClass(), test.getMethodName(), rule, importer));
+    }
+
+    public static EvaluationResult evaluate(Class<?> suiteClass, String ruleName, ArchRule rule, Supplier<JavaClasses> importer) {
+        long importAllocated = allocatedBytes();
+        long importStart = System.nanoTime();
+        JavaClasses classes = importer.get();
+        long importNanos = System.nanoTime() - importStart;
+        importAllocated = allocatedSince(importAllocated);
+
+        long evaluationAllocated = allocatedBytes();
+        long evaluationStart = System.nanoTime();
+        EvaluationResult result = null;
+        Throwable failure = null;
+        try {
+            result = rule.evaluate(classes);
+            return result;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Время и память снимаются до подсчета нарушений и обращений к отчету
+            long evaluationNanos = System.nanoTime() - evaluationStart;
+            long evaluationAllocatedBytes = allocatedSince(evaluationAllocated);
+            try {
+                // Правило могло упасть при вычислении (например, failOnEmptyShould), тогда число нарушений неизвестно
+                record(new RuleMetrics(
+                        suiteClass.getName(),
+                        ruleName,
+                        importNanos,
+                        evaluationNanos,
+                        classes.size(),
+                        classes.stream().mapToLong(javaClass -> javaClass.getMembers().size()).sum(),
+                        result == null ? -1 : countViolations(result),
+                        importAllocated,
+                        evaluationAllocatedBytes
+                ));
+            } catch (RuntimeException | Error e) {
+                // Ошибка записи замеров не должна подменять исходную ошибку правила
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    // Нарушения считаются без построения отчета: отчет сортирует и склеивает все строки нарушений
+    private static int countViolations(EvaluationResult result) {
+        int[] violations = {0};
+        ViolationHandler<Object> counter = (violatingObjects, message) -> violations[0]++;
+        result.handleViolations(counter);
+        return violations[0];
+    }
+
+    private static void record(RuleMetrics metrics) {
+        // Вне теста с Allure (например, в потоках ForkJoinPool) Allure только пишет предупреждение
+        Allure.parameter("Импорт, мс", metrics.getImportMillis());
+        Allure.parameter("Проверка, мс", metrics.getEvaluationMillis());
+        Allure.parameter("Классов", metrics.importedClasses());
+        Allure.parameter("Членов классов", metrics.importedMembers());
+        Allure.parameter("Нарушений", metrics.violations());
+        Allure.parameter("Выделено при проверке, байт", metrics.evaluationAllocatedBytes());
+        Allure.addAttachment("rule-metrics.json", "application/json", metrics.toJson(), ".json");
+
+        synchronized (SUMMARY) {
+            SUMMARY.add(metrics);
+        }
+    }
+
+    /**
+     * Сливает замеры этой JVM в отчет file, при завершении JVM это делается для {@link #SUMMARY_FILE}.
+     */
+    public static void writeSummary(Path file) {
+        synchronized (SUMMARY) {
+            // JVM без проверок правил (например, сводка частей ShardReport) отчет не трогает
+            if (!SUMMARY.isEmpty()) {
+                RuleMetrics.mergeSummary(file, SUMMARY);
+            }
+        }
+    }
+
+    // Учитывается только текущий поток, выделения в потоках ParallelArchCondition сюда не попадают
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long allocatedSince(long allocatedBefore) {
+        return allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+}
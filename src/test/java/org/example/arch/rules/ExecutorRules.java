@@ -0,0 +1,105 @@
+package org.example.arch.rules;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaConstructorCall;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.annotation.SessionScope;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.assignableTo;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.*;
+
+// Правила создания пулов потоков, подключаются в тесты через ArchTests.in(ExecutorRules.class)
+public final class ExecutorRules {
+
+    private static final String SERVICE_PACKAGE = "ru.proitr.service";
+
+    private static final DescribedPredicate<JavaClass> NON_SINGLETON_BEANS = DescribedPredicate.describe(
+            "are non-singleton beans",
+            javaClass -> javaClass.isAnnotatedWith(RequestScope.class)
+                    || javaClass.isAnnotatedWith(SessionScope.class)
+                    || javaClass.tryGetAnnotationOfType(Scope.class)
+                    .map(scope -> scope.value().isEmpty() ? scope.scopeName() : scope.value())
+                    .filter(scopeName -> !scopeName.isEmpty() && !ConfigurableBeanFactory.SCOPE_SINGLETON.equals(scopeName))
+                    .isPresent()
+    );
+
+    private ExecutorRules() {
+    }
+
+    //Не допускается ThreadPoolExecutor с неограниченной очередью LinkedBlockingQueue
+    @ArchTest
+    public static final ArchRule no_thread_pool_executor_with_unbounded_queue = codeUnits()
+            .should(new ArchCondition<JavaCodeUnit>("not create ThreadPoolExecutor with unbounded LinkedBlockingQueue") {
+                @Override
+                public void check(JavaCodeUnit codeUnit, ConditionEvents conditionEvents) {
+                    var createsExecutor = codeUnit.getConstructorCallsFromSelf()
+                            .stream()
+                            .anyMatch(call -> call.getTargetOwner().isAssignableTo(ThreadPoolExecutor.class));
+
+                    if (createsExecutor) {
+                        codeUnit.getConstructorCallsFromSelf()
+                                .stream()
+                                .filter(ExecutorRules::createsUnboundedQueue)
+                                .forEach(call -> conditionEvents.add(
+                                        SimpleConditionEvent.violated(
+                                                call,
+                                                call.getDescription() + " creates unbounded queue for ThreadPoolExecutor")
+                                ));
+                    }
+                }
+            });
+
+    //Не допускается Executors.newFixedThreadPool: очередь задач такого пула не ограничена
+    @ArchTest
+    public static final ArchRule no_fixed_thread_pool = noClasses()
+            .should()
+            .callMethod(Executors.class, "newFixedThreadPool", int.class)
+            .orShould()
+            .callMethod(Executors.class, "newFixedThreadPool", int.class, ThreadFactory.class);
+
+    //Не допускается Executors.newScheduledThreadPool: очередь задач такого пула не ограничена
+    @ArchTest
+    public static final ArchRule no_scheduled_thread_pool = noClasses()
+            .should()
+            .callMethod(Executors.class, "newScheduledThreadPool", int.class)
+            .orShould()
+            .callMethod(Executors.class, "newScheduledThreadPool", int.class, ThreadFactory.class);
+
+    //Сервисы не запускают потоки напрямую через Thread.start()
+    @ArchTest
+    public static final ArchRule no_raw_threads_in_services = noClasses()
+            .that()
+            .resideInAPackage(SERVICE_PACKAGE + "..")
+            .should()
+            .callMethod(Thread.class, "start");
+
+    //Пулы потоков не создаются в полях бинов, которые не являются синглтонами
+    @ArchTest
+    public static final ArchRule no_executor_fields_in_non_singleton_beans = noFields()
+            .that()
+            .areNotStatic()
+            .and()
+            .haveRawType(assignableTo(Executor.class))
+            .should()
+            .beDeclaredInClassesThat(NON_SINGLETON_BEANS);
+
+    private static boolean createsUnboundedQueue(JavaConstructorCall call) {
+        return call.getTargetOwner().isAssignableTo(LinkedBlockingQueue.class)
+                && call.getTarget().getRawParameterTypes().stream().noneMatch(type -> type.isEquivalentTo(int.class));
+    }
+}
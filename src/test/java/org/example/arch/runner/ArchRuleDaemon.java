@@ -0,0 +1,187 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.lang.ArchRule;
+import org.example.arch.importer.ClassesImportCache;
+import org.example.arch.importer.ClassesImportCache.ImportedClasses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Долгоживущий процесс, который держит в памяти импортированные классы и прогретые JIT правила набора
+ * и перепроверяет их по запросу через локальный сокет, без запуска Maven, Surefire и JUnit.
+ * Перед проверкой class-файлы сверяются со снимком ({@link ClassesImportCache#refresh}),
+ * если они не изменились, возвращаются результаты прошлой проверки.
+ * <p>
+ * Запуск демона (правила читаются один раз, после их изменения демон нужно перезапустить):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.example.arch.runner.ArchRuleDaemon
+ * </pre>
+ * Проверка, например из хука сохранения в IDE, завершается с кодом 1 при нарушениях:
+ * <pre>
+ * java -cp target/test-classes org.example.arch.runner.ArchRuleDaemon check [правило...]
+ * </pre>
+ * Протокол строковый, поэтому вместо клиента подойдет и {@code echo check | nc localhost 7979}.
+ * Команды: {@code check [правило...]}, {@code rules}, {@code stop}.
+ */
+public final class ArchRuleDaemon {
+
+    static final String PORT_PROPERTY = "archunit.daemon.port";
+    static final String SUITE_PROPERTY = "archunit.daemon.suite";
+
+    private static final int DEFAULT_PORT = 7979;
+    private static final String DEFAULT_SUITE = "org.example.arch.ArchitectureTest";
+    // Последняя строка ответа, по ней клиент определяет код завершения
+    private static final String PASSED = "PASSED";
+    private static final String FAILED = "FAILED";
+
+    private final ArchTestSuite suite;
+    private final ParallelArchRuleRunner runner = new ParallelArchRuleRunner();
+
+    private ImportedClasses imported;
+    private final Map<String, RuleResult> results = new LinkedHashMap<>();
+
+    ArchRuleDaemon(ArchTestSuite suite) {
+        this.suite = suite;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+        if (args.length == 0 || args[0].equals("serve")) {
+            new ArchRuleDaemon(ArchTestSuite.of(suiteClass())).serve(port);
+        } else {
+            System.exit(send(port, String.join(" ", args)));
+        }
+    }
+
+    void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            // Первая проверка импортирует классы и прогревает правила до прихода запросов
+            List<RuleResult> warmUp = check(List.of());
+            System.out.println("Listening on " + server.getLocalSocketAddress() + ", " + warmUp.size()
+                    + " rules of " + suite.suiteClass().getSimpleName() + " are warmed up");
+            // Запросы обрабатываются по одному: параллельная проверка одних и тех же классов ничего не дает
+            boolean running = true;
+            while (running) {
+                try (Socket client = server.accept()) {
+                    running = handle(client);
+                } catch (IOException e) {
+                    System.err.println("Request failed: " + e);
+                }
+            }
+        }
+    }
+
+    private boolean handle(Socket client) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(client.getOutputStream(), false, StandardCharsets.UTF_8);
+        String request = in.readLine();
+        List<String> command = request == null ? List.of() : Arrays.asList(request.trim().split("\\s+"));
+        switch (command.isEmpty() ? "" : command.get(0)) {
+            case "check" -> respond(out, command.subList(1, command.size()));
+            case "rules" -> {
+                suite.rules().keySet().forEach(out::println);
+                out.println(PASSED);
+            }
+            case "stop" -> {
+                out.println(PASSED + " stopped");
+                out.flush();
+                return false;
+            }
+            default -> out.println(FAILED + " unknown command '" + request + "', expected check [rule...], rules or stop");
+        }
+        out.flush();
+        return true;
+    }
+
+    private void respond(PrintWriter out, List<String> ruleNames) {
+        long start = System.nanoTime();
+        List<RuleResult> checked;
+        try {
+            checked = check(ruleNames);
+        } catch (RuntimeException e) {
+            out.println(FAILED + " " + e);
+            return;
+        }
+        long failed = checked.stream().filter(RuleResult::hasFailed).count();
+        for (RuleResult result : checked) {
+            if (result.hasFailed()) {
+                out.println(FAILED + " " + result.ruleName());
+                result.getFailureMessage().lines().forEach(line -> out.println("    " + line));
+            }
+        }
+        out.printf("%s %d of %d rules failed in %d ms%n", failed == 0 ? PASSED : FAILED,
+                failed, checked.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    List<RuleResult> check(List<String> ruleNames) {
+        Map<String, ArchRule> rules = selectRules(ruleNames);
+        ImportedClasses refreshed = ClassesImportCache.refresh(suite.importOptions(), suite.packages());
+        if (refreshed != imported) {
+            // Классы переимпортированы, результаты прошлых проверок относятся к старому графу
+            imported = refreshed;
+            results.clear();
+        }
+        Map<String, ArchRule> unchecked = new LinkedHashMap<>(rules);
+        unchecked.keySet().removeAll(results.keySet());
+        runner.evaluate(suite.suiteClass(), unchecked, imported.classes()).forEach(result -> results.put(result.ruleName(), result));
+        return rules.keySet().stream().map(results::get).toList();
+    }
+
+    private Map<String, ArchRule> selectRules(List<String> ruleNames) {
+        if (ruleNames.isEmpty()) {
+            return suite.rules();
+        }
+        Map<String, ArchRule> selected = new LinkedHashMap<>();
+        for (String ruleName : ruleNames) {
+            ArchRule rule = suite.rules().get(ruleName);
+            if (rule == null) {
+                throw new IllegalArgumentException("Unknown rule " + ruleName);
+            }
+            selected.put(ruleName, rule);
+        }
+        return selected;
+    }
+
+    // Клиент не загружает ArchUnit, поэтому запускается за доли секунды
+    private static int send(int port, String request) {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.println(request);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            String last = "";
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                last = line;
+            }
+            return last.startsWith(PASSED) ? 0 : 1;
+        } catch (ConnectException e) {
+            System.err.println("Daemon is not running on port " + port);
+            return 2;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Class<?> suiteClass() {
+        String suiteClass = System.getProperty(SUITE_PROPERTY, DEFAULT_SUITE);
+        try {
+            return Class.forName(suiteClass, true, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown rule suite " + suiteClass, e);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchIgnore;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.ArchTests;
+import com.tngtech.archunit.lang.ArchRule;
+import org.example.arch.baseline.ViolationBaseline;
+import org.example.arch.condition.BoundedArchCondition;
+import org.example.arch.importer.ClassFilesSnapshot;
+import org.example.arch.importer.ClassesImportCache;
+import org.example.arch.runner.RuleResultCache.PreviousResult;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Набор правил из класса с {@link AnalyzeClasses}: статические поля {@link ArchTest} в порядке объявления,
+ * а также пакеты и ImportOption, по которым импортируются проверяемые классы.
+ * Правила, помеченные {@link StructuralRule}, вычисляются на импорте без тел методов,
+ * а полный импорт строится, только если в наборе есть остальные правила.
+ * При проверке изменений ({@link ChangedScope}) правила, кроме {@link GlobalRule}, вычисляются только по затронутым классам.
+ * Нарушения из базовой линии правила ({@link ViolationBaseline}, идентификатор - имя правила) ошибкой не считаются.
+ * Для быстрой проверки перед коммитом {@link #findFirstFailure} останавливается на первом нарушенном правиле.
+ * Затраты правил RuleProfiler записывает по классу набора и имени правила.
+ */
+public record ArchTestSuite(Class<?> suiteClass,
+                            Map<String, ArchRule> rules,
+                            Set<String> structuralRules,
+                            Set<String> globalRules,
+                            Set<String> packages,
+                            List<ImportOption> importOptions) {
+
+    public static ArchTestSuite of(Class<?> suiteClass) {
+        AnalyzeClasses analyzeClasses = suiteClass.getAnnotation(AnalyzeClasses.class);
+        if (analyzeClasses == null) {
+            throw new IllegalArgumentException(suiteClass.getName() + " is not annotated with @AnalyzeClasses");
+        }
+        Map<String, ArchRule> rules = new LinkedHashMap<>();
+        Set<String> structuralRules = new LinkedHashSet<>();
+        Set<String> globalRules = new LinkedHashSet<>();
+        collectRules(suiteClass, "", rules, structuralRules, globalRules);
+        return new ArchTestSuite(
+                suiteClass,
+                Collections.unmodifiableMap(rules),
+                Collections.unmodifiableSet(structuralRules),
+                Collections.unmodifiableSet(globalRules),
+                Set.of(analyzeClasses.packages()),
+                Arrays.stream(analyzeClasses.importOptions()).map(ArchTestSuite::newImportOption).toList()
+        );
+    }
+
+    public JavaClasses importClasses() {
+        return ClassesImportCache.importPackages(importOptions, packages);
+    }
+
+    public JavaClasses importClassHeaders() {
+        return ClassesImportCache.importHeaders(importOptions, packages);
+    }
+
+    /**
+     * Вычисляет правила набора: структурные на импорте без тел методов, остальные на полном импорте.
+     * Результаты правил, у которых не изменились ни код, ни проверяемые классы, берутся из {@link RuleResultCache},
+     * если все результаты нашлись в кэше, классы не импортируются. Правило, кроме структурных и {@link GlobalRule},
+     * которое прошло на прошлом снимке class-файлов, перепроверяется только по классам, затронутым изменениями
+     * с этого снимка: нарушения у остальных классов появиться не могли. Результаты возвращаются в порядке переданных правил.
+     */
+    public List<RuleResult> evaluate(ParallelArchRuleRunner runner, Map<String, ArchRule> selectedRules) {
+        Map<String, RuleResult> results = new HashMap<>();
+        Map<String, ArchRule> structural = new LinkedHashMap<>();
+        Map<String, ArchRule> full = new LinkedHashMap<>();
+        Map<String, PreviousResult> passedBefore = new LinkedHashMap<>();
+        // При обновлении базовых линий все правила должны быть вычислены заново
+        Optional<RuleResultCache> cache = RuleResultCache.ENABLED && !ViolationBaseline.isUpdating()
+                ? Optional.of(RuleResultCache.forSuite(suiteClass))
+                : Optional.empty();
+        ClassFilesSnapshot input = cache.isPresent() ? ClassesImportCache.snapshot(importOptions, packages) : null;
+        selectedRules.forEach((name, rule) -> {
+            Optional<RuleResult> cached = cache.flatMap(rules -> rules.get(name, rule, input));
+            if (cached.isPresent()) {
+                results.put(name, cached.get());
+                return;
+            }
+            Optional<PreviousResult> previous = structuralRules.contains(name) || globalRules.contains(name)
+                    ? Optional.empty()
+                    : cache.flatMap(rules -> rules.getPrevious(name, rule)).filter(result -> !result.result().hasFailed());
+            if (previous.isPresent()) {
+                passedBefore.put(name, previous.get());
+            } else {
+                (structuralRules.contains(name) ? structural : full).put(name, rule);
+            }
+        });
+
+        List<RuleResult> evaluated = new ArrayList<>();
+        if (!structural.isEmpty()) {
+            evaluated.addAll(runner.evaluate(suiteClass, structural, importClassHeaders()));
+        }
+        if (!passedBefore.isEmpty()) {
+            evaluated.addAll(evaluateChanges(runner, selectedRules, passedBefore, input, full));
+        }
+        if (!full.isEmpty()) {
+            evaluated.addAll(runner.evaluate(suiteClass, full, importClasses()));
+        }
+        for (RuleResult result : evaluated) {
+            results.put(result.ruleName(), result);
+            cache.ifPresent(rules -> rules.put(result, selectedRules.get(result.ruleName()), input));
+        }
+        if (!evaluated.isEmpty()) {
+            cache.ifPresent(RuleResultCache::pruneInputs);
+        }
+        return selectedRules.keySet().stream().map(results::get).toList();
+    }
+
+    // Прошедшие правила группируются по снимку, на котором прошли; при удаленных class-файлах правило вычисляется целиком
+    private List<RuleResult> evaluateChanges(ParallelArchRuleRunner runner, Map<String, ArchRule> selectedRules,
+                                             Map<String, PreviousResult> passedBefore, ClassFilesSnapshot input,
+                                             Map<String, ArchRule> full) {
+        Map<ClassFilesSnapshot, Map<String, ArchRule>> rulesByInput = new IdentityHashMap<>();
+        passedBefore.forEach((name, previous) -> rulesByInput
+                .computeIfAbsent(previous.input(), snapshot -> new LinkedHashMap<>())
+                .put(name, selectedRules.get(name).allowEmptyShould(true)));
+
+        JavaClasses classes = importClasses();
+        List<RuleResult> evaluated = new ArrayList<>();
+        rulesByInput.forEach((previousInput, rules) -> {
+            Set<URI> changed = input.getChangedClassFilesSince(previousInput);
+            if (changed.stream().anyMatch(classFile -> input.getContentHash(classFile).isEmpty())) {
+                rules.keySet().forEach(name -> full.put(name, selectedRules.get(name)));
+                return;
+            }
+            evaluated.addAll(runner.evaluate(suiteClass, rules, ChangedScope.ofClassFiles(classes, changed).select(classes)));
+        });
+        return evaluated;
+    }
+
+    /**
+     * Вычисляет правила по классам, затронутым изменениями. Область строится по полному импорту,
+     * поэтому структурные правила здесь тоже вычисляются на нем. Кэш результатов не используется:
+     * результат по части классов не годится для проверки всего набора. Пустая область не считается ошибкой правила.
+     */
+    public List<RuleResult> evaluate(ParallelArchRuleRunner runner, Map<String, ArchRule> selectedRules, ChangedScope scope) {
+        if (ViolationBaseline.isUpdating()) {
+            throw new IllegalStateException("Violation baselines can only be updated by a full check, not by a changed scope");
+        }
+        JavaClasses classes = importClasses();
+        JavaClasses affectedClasses = scope.select(classes);
+        Map<String, ArchRule> global = new LinkedHashMap<>();
+        Map<String, ArchRule> scoped = new LinkedHashMap<>();
+        selectedRules.forEach((name, rule) -> {
+            if (globalRules.contains(name)) {
+                global.put(name, rule);
+            } else {
+                scoped.put(name, rule.allowEmptyShould(true));
+            }
+        });
+
+        Map<String, RuleResult> results = new HashMap<>();
+        runner.evaluate(suiteClass, global, classes).forEach(result -> results.put(result.ruleName(), result));
+        runner.evaluate(suiteClass, scoped, affectedClasses).forEach(result -> results.put(result.ruleName(), result));
+        return selectedRules.keySet().stream().map(results::get).toList();
+    }
+
+    /**
+     * Ищет первое нарушенное правило, когда важен только факт нарушения (например, перед коммитом).
+     * Сначала проверяются результаты из {@link RuleResultCache}, затем правила вычисляются по одному от самых дешевых
+     * по отчету RuleProfiler прошлой сборки (costs) к самым дорогим, а условия {@link BoundedArchCondition}
+     * останавливаются на первом нарушении. Классы импортируются, только когда до них доходит очередь.
+     */
+    public Optional<RuleResult> findFirstFailure(Map<String, ArchRule> selectedRules, Path costs) {
+        if (ViolationBaseline.isUpdating()) {
+            throw new IllegalStateException("Violation baselines can only be updated by a full check, not by a fail-fast check");
+        }
+        Optional<RuleResultCache> cache = RuleResultCache.ENABLED
+                ? Optional.of(RuleResultCache.forSuite(suiteClass))
+                : Optional.empty();
+        ClassFilesSnapshot input = cache.isPresent() ? ClassesImportCache.snapshot(importOptions, packages) : null;
+        Map<String, ArchRule> uncached = new LinkedHashMap<>();
+        for (Map.Entry<String, ArchRule> rule : selectedRules.entrySet()) {
+            Optional<RuleResult> cached = cache.flatMap(rules -> rules.get(rule.getKey(), rule.getValue(), input));
+            if (cached.isEmpty()) {
+                uncached.put(rule.getKey(), rule.getValue());
+            } else if (cached.get().hasFailed()) {
+                return cached;
+            }
+        }
+
+        RuleCosts costsByRule = RuleCosts.read(costs, suiteClass);
+        JavaClasses classHeaders = null;
+        JavaClasses classes = null;
+        // Сортировка устойчива: правила с одинаковой стоимостью идут в порядке объявления
+        for (String name : uncached.keySet().stream().sorted(Comparator.comparingLong(costsByRule::of)).toList()) {
+            JavaClasses ruleClasses;
+            if (structuralRules.contains(name)) {
+                classHeaders = classHeaders == null ? importClassHeaders() : classHeaders;
+                ruleClasses = classHeaders;
+            } else {
+                classes = classes == null ? importClasses() : classes;
+                ruleClasses = classes;
+            }
+            ArchRule rule = uncached.get(name);
+            RuleResult result = BoundedArchCondition.failingFast(() -> ParallelArchRuleRunner.evaluate(suiteClass, name, rule, ruleClasses));
+            // Прерванное на первом нарушении вычисление в кэш не попадает: FirstViolationException не AssertionError
+            cache.ifPresent(rules -> rules.put(result, rule, input));
+            if (result.hasFailed()) {
+                return Optional.of(result);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Наборы правил ArchTests раскрываются рекурсивно, имя правила получает префикс поля набора
+    private static void collectRules(Class<?> definitionLocation, String prefix, Map<String, ArchRule> rules,
+                                     Set<String> structuralRules, Set<String> globalRules) {
+        for (Field field : definitionLocation.getDeclaredFields()) {
+            // @ArchIgnore на поле пропускает правило, как и движок ArchUnit; на классе набора он только отключает движок
+            if (!field.isAnnotationPresent(ArchTest.class) || !Modifier.isStatic(field.getModifiers())
+                    || field.isAnnotationPresent(ArchIgnore.class)) {
+                continue;
+            }
+            if (ArchRule.class.isAssignableFrom(field.getType())) {
+                // Идентификатор базовой линии - путь к полю от класса набора, например executor_hygiene.no_fixed_thread_pool
+                rules.put(prefix + field.getName(), ViolationBaseline.freeze(prefix + field.getName(), (ArchRule) readField(field)));
+                if (field.isAnnotationPresent(StructuralRule.class)) {
+                    structuralRules.add(prefix + field.getName());
+                }
+                if (field.isAnnotationPresent(GlobalRule.class)) {
+                    globalRules.add(prefix + field.getName());
+                }
+            } else if (ArchTests.class.isAssignableFrom(field.getType())) {
+                ArchTests archTests = (ArchTests) readField(field);
+                collectRules(archTests.getDefinitionLocation(), prefix + field.getName() + ".", rules, structuralRules, globalRules);
+            }
+        }
+    }
+
+    private static Object readField(Field field) {
+        try {
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read rule " + field, e);
+        }
+    }
+
+    private static ImportOption newImportOption(Class<? extends ImportOption> optionClass) {
+        try {
+            return optionClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't create import option " + optionClass.getName(), e);
+        }
+    }
+}
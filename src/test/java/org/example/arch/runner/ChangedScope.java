@@ -0,0 +1,213 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.domain.Source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Классы, затронутые изменениями рабочей копии: классы из измененных исходных файлов и все классы,
+ * которые зависят от них прямо или транзитивно (наследование, поля, сигнатуры, вызовы, аннотации).
+ * Если затронутый класс переопределяет метод импортированного супертипа, затронуты и классы, вызывающие этот метод
+ * супертипа: вызов может попасть в переопределение (так вызовы обходит, например,
+ * {@link org.example.arch.condition.BlockingCallConditions}). Остальные зависящие от супертипа классы,
+ * в том числе другие его реализации, в область не попадают.
+ * Нарушение правила, которое проверяет сам класс и его зависимости, может появиться или исчезнуть
+ * только у класса из этой области, поэтому такие правила достаточно вычислить по ней.
+ * Правила {@link GlobalRule} по-прежнему вычисляются по всем классам.
+ * Удаленные исходные файлы в область не попадают: их классов уже нет среди импортированных.
+ */
+public final class ChangedScope {
+
+    public static final String BASE_PROPERTY = "archunit.scope.base";
+
+    // Раскладка Maven: исходники тестов и их class-файлы
+    private static final String TEST_SOURCES = "src/test/";
+    private static final String TEST_CLASSES = "/test-classes/";
+
+    private final Set<JavaClass> changedClasses;
+    private final Set<JavaClass> classes;
+
+    private ChangedScope(Set<JavaClass> changedClasses, Set<JavaClass> classes) {
+        this.changedClasses = Collections.unmodifiableSet(changedClasses);
+        this.classes = Collections.unmodifiableSet(classes);
+    }
+
+    /**
+     * Изменения рабочей копии (включая неотслеживаемые файлы) относительно коммита из -Darchunit.scope.base,
+     * по умолчанию HEAD.
+     */
+    public static ChangedScope fromGit(JavaClasses classes) {
+        String base = System.getProperty(BASE_PROPERTY, "HEAD");
+        List<String> changedFiles = new ArrayList<>(git("diff", "--name-only", base, "--"));
+        changedFiles.addAll(git("ls-files", "--others", "--exclude-standard"));
+        return of(classes, changedFiles);
+    }
+
+    /**
+     * Файлы сопоставляются классам по пути пакета и имени исходного файла из байткода,
+     * поэтому пути могут быть относительными к любой директории выше корня исходников.
+     * Тесты могут повторять пакет и имя файла основного кода, поэтому файл из src/test сопоставляется
+     * только классам из test-classes, а остальные файлы - только классам не из test-classes.
+     */
+    public static ChangedScope of(JavaClasses classes, Collection<String> changedFiles) {
+        Map<String, List<JavaClass>> classesBySourceFile = new HashMap<>();
+        Map<String, List<JavaClass>> testClassesBySourceFile = new HashMap<>();
+        for (JavaClass javaClass : classes) {
+            Map<String, List<JavaClass>> bySourceFile = isTestClass(javaClass) ? testClassesBySourceFile : classesBySourceFile;
+            javaClass.getSource()
+                    .flatMap(Source::getFileName)
+                    .map(fileName -> javaClass.getPackageName().isEmpty()
+                            ? fileName
+                            : javaClass.getPackageName().replace('.', '/') + "/" + fileName)
+                    .ifPresent(sourceFile -> bySourceFile.computeIfAbsent(sourceFile, file -> new ArrayList<>()).add(javaClass));
+        }
+
+        Set<JavaClass> changedClasses = new LinkedHashSet<>();
+        for (String changedFile : changedFiles) {
+            String path = changedFile.replace('\\', '/');
+            Map<String, List<JavaClass>> bySourceFile = isTestSource(path) ? testClassesBySourceFile : classesBySourceFile;
+            // Пробуются все суффиксы пути: src/main/java/ru/proitr/A.java, main/java/ru/proitr/A.java, ...
+            int start = 0;
+            while (start >= 0) {
+                List<JavaClass> matched = bySourceFile.get(path.substring(start));
+                if (matched != null) {
+                    changedClasses.addAll(matched);
+                    break;
+                }
+                int separator = path.indexOf('/', start);
+                start = separator < 0 ? -1 : separator + 1;
+            }
+        }
+        return new ChangedScope(changedClasses, dependentsClosure(classes, changedClasses));
+    }
+
+    /**
+     * Изменения по class-файлам, например между снимками двух сборок: класс сопоставляется по URI своего class-файла.
+     */
+    public static ChangedScope ofClassFiles(JavaClasses classes, Set<URI> changedClassFiles) {
+        Set<JavaClass> changedClasses = new LinkedHashSet<>();
+        for (JavaClass javaClass : classes) {
+            if (javaClass.getSource().map(source -> changedClassFiles.contains(source.getUri())).orElse(false)) {
+                changedClasses.add(javaClass);
+            }
+        }
+        return new ChangedScope(changedClasses, dependentsClosure(classes, changedClasses));
+    }
+
+    public Set<JavaClass> getChangedClasses() {
+        return changedClasses;
+    }
+
+    public Set<JavaClass> getClasses() {
+        return classes;
+    }
+
+    public JavaClasses select(JavaClasses importedClasses) {
+        return importedClasses.that(DescribedPredicate.describe("affected by changes", classes::contains));
+    }
+
+    private static Set<JavaClass> dependentsClosure(JavaClasses importedClasses, Set<JavaClass> changedClasses) {
+        Set<JavaClass> closure = new HashSet<>(changedClasses);
+        Deque<JavaClass> queue = new ArrayDeque<>(changedClasses);
+        while (!queue.isEmpty()) {
+            JavaClass javaClass = queue.poll();
+            for (Dependency dependency : javaClass.getDirectDependenciesToSelf()) {
+                JavaClass origin = dependency.getOriginClass();
+                if (closure.add(origin)) {
+                    queue.add(origin);
+                }
+            }
+            for (JavaMethod overridden : overriddenMethods(importedClasses, javaClass)) {
+                for (JavaMethodCall call : overridden.getCallsOfSelf()) {
+                    JavaClass caller = call.getOriginOwner();
+                    if (closure.add(caller)) {
+                        queue.add(caller);
+                    }
+                }
+            }
+        }
+        return closure;
+    }
+
+    // Неимпортированные супертипы (например, Object) пропускаются, иначе в область попали бы все вызывающие toString()
+    private static Set<JavaMethod> overriddenMethods(JavaClasses importedClasses, JavaClass javaClass) {
+        List<JavaClass> supertypes = new ArrayList<>(javaClass.getAllRawSuperclasses());
+        supertypes.addAll(javaClass.getAllRawInterfaces());
+        Set<JavaMethod> overridden = new HashSet<>();
+        for (JavaMethod method : javaClass.getMethods()) {
+            if (!isOverridable(method)) {
+                continue;
+            }
+            String[] parameterTypes = method.getRawParameterTypes().stream().map(JavaClass::getName).toArray(String[]::new);
+            for (JavaClass supertype : supertypes) {
+                if (importedClasses.contain(supertype.getName())) {
+                    supertype.tryGetMethod(method.getName(), parameterTypes).filter(ChangedScope::isOverridable).ifPresent(overridden::add);
+                }
+            }
+        }
+        return overridden;
+    }
+
+    private static boolean isOverridable(JavaMethod method) {
+        return !method.getModifiers().contains(JavaModifier.STATIC) && !method.getModifiers().contains(JavaModifier.PRIVATE);
+    }
+
+    private static boolean isTestSource(String path) {
+        return path.startsWith(TEST_SOURCES) || path.contains("/" + TEST_SOURCES);
+    }
+
+    private static boolean isTestClass(JavaClass javaClass) {
+        return javaClass.getSource().map(source -> source.getUri().toString().contains(TEST_CLASSES)).orElse(false);
+    }
+
+    private static List<String> git(String... arguments) {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(arguments));
+        try {
+            Process process = new ProcessBuilder(command).start();
+            // stderr читается параллельно, чтобы git не заблокировался на заполненном буфере
+            CompletableFuture<String> errors = CompletableFuture.supplyAsync(() -> read(process.getErrorStream()));
+            String output = read(process.getInputStream());
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException(String.join(" ", command) + " failed: " + errors.join());
+            }
+            return output.lines().filter(line -> !line.isBlank()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't run " + String.join(" ", command), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + String.join(" ", command), e);
+        }
+    }
+
+    private static String read(InputStream in) {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
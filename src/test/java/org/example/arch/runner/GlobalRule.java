@@ -0,0 +1,16 @@
+package org.example.arch.runner;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Результат правила зависит не только от проверяемого класса и того, от чего он зависит:
+ * например, правило ищет пустые слои или проверяет, что класс кем-то используется.
+ * При проверке только измененных классов ({@link ChangedScope}) такие правила вычисляются по всем классам.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface GlobalRule {
+}
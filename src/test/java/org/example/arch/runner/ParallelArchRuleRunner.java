@@ -0,0 +1,58 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import org.example.arch.metrics.RuleProfiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Параллельно вычисляет независимые правила над одними и теми же импортированными классами
+ * в общем ForkJoinPool. Результаты возвращаются в порядке исходных правил,
+ * поэтому итоговый отчет не зависит от порядка завершения задач.
+ * В том же пуле проверяют объекты условия {@link org.example.arch.condition.ParallelArchCondition},
+ * поэтому потоков не больше, чем в общем пуле (-Djava.util.concurrent.ForkJoinPool.common.parallelism),
+ * и потоки не создаются заново для каждого вызова.
+ */
+public final class ParallelArchRuleRunner {
+
+    /**
+     * Правила из набора suiteClass: по набору и имени правила RuleProfiler ведет историю затрат.
+     */
+    public List<RuleResult> evaluate(Class<?> suiteClass, Map<String, ArchRule> rules, JavaClasses classes) {
+        List<ForkJoinTask<RuleResult>> tasks = rules.entrySet()
+                .stream()
+                .map(rule -> ForkJoinPool.commonPool().submit(() -> evaluate(suiteClass, rule.getKey(), rule.getValue(), classes)))
+                .toList();
+        return tasks.stream()
+                .map(ForkJoinTask::join)
+                .toList();
+    }
+
+    public void check(Class<?> suiteClass, Map<String, ArchRule> rules, JavaClasses classes) {
+        assertNoFailures(evaluate(suiteClass, rules, classes));
+    }
+
+    public static void assertNoFailures(List<RuleResult> results) {
+        String failures = results
+                .stream()
+                .filter(RuleResult::hasFailed)
+                .map(result -> result.ruleName() + ": " + result.getFailureMessage())
+                .collect(Collectors.joining(System.lineSeparator() + System.lineSeparator()));
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures);
+        }
+    }
+
+    static RuleResult evaluate(Class<?> suiteClass, String ruleName, ArchRule rule, JavaClasses classes) {
+        try {
+            return RuleResult.evaluated(ruleName, RuleProfiler.evaluate(suiteClass, ruleName, rule, () -> classes));
+        } catch (RuntimeException | AssertionError e) {
+            return RuleResult.failed(ruleName, e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.arch.runner;
+
+import org.example.arch.metrics.RuleMetrics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Затраты на вычисление правил по отчету RuleProfiler прошлой сборки.
+ * Правилам без истории назначается средняя стоимость известных правил.
+ * По умолчанию затраты читаются из сводки полной сборки: отчет текущего прогона (-Darchunit.metrics.file)
+ * в шардах и при быстрой проверке указывает на собственный файл и содержит не все правила.
+ */
+public final class RuleCosts {
+
+    public static final Path DEFAULT_FILE = Path.of("target/archunit-metrics/rule-metrics.json");
+
+    private final Map<String, Long> knownCosts;
+    private final long defaultCost;
+
+    private RuleCosts(Map<String, Long> knownCosts) {
+        this.knownCosts = knownCosts;
+        this.defaultCost = Math.max(1, (long) knownCosts.values().stream().mapToLong(Long::longValue).average().orElse(1));
+    }
+
+    // В отчете лежат замеры всех наборов, стоимость берется только у правил набора suiteClass
+    static RuleCosts read(Path summary, Class<?> suiteClass) {
+        if (!Files.isRegularFile(summary)) {
+            return new RuleCosts(Map.of());
+        }
+        return new RuleCosts(RuleMetrics.readSummary(summary)
+                .stream()
+                .filter(rule -> suiteClass.getName().equals(rule.suite()))
+                .collect(Collectors.toMap(RuleMetrics::ruleName, RuleMetrics::evaluationNanos, Math::max)));
+    }
+
+    long of(String ruleName) {
+        return knownCosts.getOrDefault(ruleName, defaultCost);
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.lang.EvaluationResult;
+
+import java.util.Optional;
+
+/**
+ * Результат вычисления одного правила: либо EvaluationResult, либо ошибка, выброшенная при вычислении
+ * (например, срабатывание failOnEmptyShould). У результата из {@link RuleResultCache} EvaluationResult нет,
+ * сохраненный отчет о нарушениях возвращается как ошибка.
+ */
+public record RuleResult(String ruleName, Optional<EvaluationResult> result, Optional<Throwable> error) {
+
+    public static RuleResult evaluated(String ruleName, EvaluationResult result) {
+        return new RuleResult(ruleName, Optional.of(result), Optional.empty());
+    }
+
+    public static RuleResult failed(String ruleName, Throwable error) {
+        return new RuleResult(ruleName, Optional.empty(), Optional.of(error));
+    }
+
+    static RuleResult cached(String ruleName, boolean failed, String failureMessage) {
+        return failed
+                ? failed(ruleName, new AssertionError(failureMessage))
+                : new RuleResult(ruleName, Optional.empty(), Optional.empty());
+    }
+
+    public boolean hasFailed() {
+        return error.isPresent() || result.map(EvaluationResult::hasViolation).orElse(false);
+    }
+
+    public String getFailureMessage() {
+        return error.map(Throwable::getMessage)
+                .orElseGet(() -> result.map(evaluated -> evaluated.getFailureReport().toString()).orElse(""));
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.core.importer.Locations;
+import com.tngtech.archunit.lang.ArchRule;
+import org.example.arch.baseline.ViolationBaseline;
+import org.example.arch.condition.BoundedArchCondition;
+import org.example.arch.importer.ClassFilesSnapshot;
+import org.example.arch.report.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Сохраняемые между сборками результаты правил. Результат привязан к описанию правила, коду правил
+ * (class-файлы пакета набора и версия ArchUnit), базовым линиям замороженных нарушений и снимку проверяемых
+ * class-файлов. При том же снимке результат берется как есть. Если изменились только проверяемые классы,
+ * доступен прошлый результат вместе с его снимком: по изменениям между снимками {@link ArchTestSuite}
+ * перепроверяет правило только на затронутых классах ({@link ChangedScope}).
+ * <p>
+ * Каждое правило хранится в своем файле в target/archunit-results, снимки - в inputs/ рядом, поэтому части набора
+ * из разных форков пишут кэш без блокировок. Отключается через -Darchunit.results.cache=false.
+ */
+public final class RuleResultCache {
+
+    static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("archunit.results.dir", "target/archunit-results"));
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("archunit.results.cache", "true"));
+
+    private static final String INPUTS = "inputs";
+    private static final String INPUT_EXTENSION = ".bin";
+
+    private final Path directory;
+    private final byte[] rulesFingerprint;
+    private final Map<String, Optional<ClassFilesSnapshot>> inputs = new ConcurrentHashMap<>();
+
+    RuleResultCache(Path directory, byte[] rulesFingerprint) {
+        this.directory = directory;
+        this.rulesFingerprint = rulesFingerprint.clone();
+    }
+
+    /**
+     * Кэш правил набора: кодом правил считаются все классы пакета набора и его подпакетов
+     * (условия, индексы, вспомогательные наборы ArchTests).
+     */
+    public static RuleResultCache forSuite(Class<?> suiteClass) {
+        MessageDigest digest = sha256();
+        digest.update(ClassFilesSnapshot.scan(Locations.ofPackage(suiteClass.getPackageName()), List.of()).getFingerprint());
+        digest.update(ViolationBaseline.fingerprint());
+        digest.update(Integer.toString(BoundedArchCondition.DEFAULT_LIMIT).getBytes(StandardCharsets.UTF_8));
+        // Путь к jar ArchUnit содержит его версию
+        digest.update(String.valueOf(ArchRule.class.getProtectionDomain().getCodeSource().getLocation())
+                .getBytes(StandardCharsets.UTF_8));
+        return new RuleResultCache(DEFAULT_DIRECTORY, digest.digest());
+    }
+
+    /**
+     * Результат правила, вычисленный на тех же class-файлах.
+     */
+    public Optional<RuleResult> get(String ruleName, ArchRule rule, ClassFilesSnapshot input) {
+        String inputId = idOf(input);
+        return entryOf(ruleName, rule)
+                .filter(entry -> entry.input().equals(inputId))
+                .map(entry -> toResult(ruleName, entry));
+    }
+
+    /**
+     * Результат правила, вычисленный на других class-файлах, и снимок этих class-файлов.
+     */
+    public Optional<PreviousResult> getPrevious(String ruleName, ArchRule rule) {
+        return entryOf(ruleName, rule).flatMap(entry -> inputOf(entry.input())
+                .map(input -> new PreviousResult(toResult(ruleName, entry), input)));
+    }
+
+    public void put(RuleResult result, ArchRule rule, ClassFilesSnapshot input) {
+        // Кэшируются нарушения и AssertionError (например, от failOnEmptyShould), прочие исключения могут быть случайными
+        if (result.error().filter(error -> !(error instanceof AssertionError)).isPresent()) {
+            return;
+        }
+        String inputId = idOf(input);
+        Path inputFile = inputFileOf(inputId);
+        if (!Files.isRegularFile(inputFile)) {
+            input.write(inputFile);
+        }
+        Json.write(fileOf(result.ruleName()), new Entry(result.ruleName(), keyOf(rule), inputId, result.hasFailed(),
+                result.hasFailed() ? result.getFailureMessage() : ""));
+    }
+
+    /**
+     * Удаляет снимки, на которые не ссылается ни один результат. Снимок, удаленный параллельным форком
+     * до записи его результатов, означает только полное вычисление этих правил в следующий раз.
+     */
+    public void pruneInputs() {
+        Path inputsDirectory = directory.resolve(INPUTS);
+        if (!Files.isDirectory(inputsDirectory)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.list(directory); Stream<Path> inputFiles = Files.list(inputsDirectory)) {
+            Set<String> referenced = entries.filter(Files::isRegularFile)
+                    .flatMap(file -> Json.tryRead(file, Entry.class).stream())
+                    .map(Entry::input)
+                    .collect(Collectors.toSet());
+            for (Path inputFile : inputFiles.toList()) {
+                String name = inputFile.getFileName().toString();
+                if (name.endsWith(INPUT_EXTENSION) && !referenced.contains(name.substring(0, name.length() - INPUT_EXTENSION.length()))) {
+                    Files.deleteIfExists(inputFile);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't prune rule result inputs in " + inputsDirectory, e);
+        }
+    }
+
+    private Optional<Entry> entryOf(String ruleName, ArchRule rule) {
+        Path file = fileOf(ruleName);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Json.tryRead(file, Entry.class).filter(entry -> entry.key().equals(keyOf(rule)));
+    }
+
+    private static RuleResult toResult(String ruleName, Entry entry) {
+        return RuleResult.cached(ruleName, entry.failed(), entry.message());
+    }
+
+    // Снимок один на все правила, вычисленные на нем, поэтому читается один раз
+    private Optional<ClassFilesSnapshot> inputOf(String inputId) {
+        return inputs.computeIfAbsent(inputId, id -> ClassFilesSnapshot.read(inputFileOf(id)));
+    }
+
+    private String keyOf(ArchRule rule) {
+        MessageDigest digest = sha256();
+        digest.update(rulesFingerprint);
+        digest.update(rule.getDescription().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path inputFileOf(String inputId) {
+        return directory.resolve(INPUTS).resolve(inputId + INPUT_EXTENSION);
+    }
+
+    private static String idOf(ClassFilesSnapshot input) {
+        return HexFormat.of().formatHex(input.getFingerprint());
+    }
+
+    // Имя правила может содержать любые символы, поэтому имя файла строится по хэшу
+    private Path fileOf(String ruleName) {
+        byte[] hash = sha256().digest(ruleName.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(hash, 0, 8) + ".json");
+    }
+
+    // Файл результата правила: key - код правил и описание правила, input - снимок проверенных class-файлов
+    private record Entry(String rule, String key, String input, boolean failed, String message) {
+    }
+
+    /**
+     * Прошлый результат правила и снимок class-файлов, на котором он получен.
+     */
+    public record PreviousResult(RuleResult result, ClassFilesSnapshot input) {
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.lang.ArchRule;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Часть набора правил, которую проверяет один форк Surefire. Правила распределяются детерминированно,
+ * поэтому все форки независимо получают одно и то же разбиение: по стабильному хэшу имени правила
+ * или по затратам из отчета RuleProfiler прошлой сборки (жадно, самое дорогое правило - в наименее загруженную часть).
+ */
+public record RuleShard(int index, int count, Strategy strategy, Path costs) {
+
+    static final String INDEX_PROPERTY = "archunit.shard.index";
+    static final String COUNT_PROPERTY = "archunit.shard.count";
+    static final String STRATEGY_PROPERTY = "archunit.shard.strategy";
+    static final String COSTS_PROPERTY = "archunit.shard.costs";
+
+    public RuleShard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index must be in [0, " + count + "), but was " + index);
+        }
+    }
+
+    public static RuleShard fromSystemProperties() {
+        return new RuleShard(
+                Integer.getInteger(INDEX_PROPERTY, 0),
+                Integer.getInteger(COUNT_PROPERTY, 1),
+                Strategy.valueOf(System.getProperty(STRATEGY_PROPERTY, Strategy.HASH.name()).toUpperCase(Locale.ROOT)),
+                Path.of(System.getProperty(COSTS_PROPERTY, RuleCosts.DEFAULT_FILE.toString()))
+        );
+    }
+
+    public Map<String, ArchRule> select(Class<?> suiteClass, Map<String, ArchRule> rules) {
+        List<String> assigned = strategy == Strategy.COST && Files.isRegularFile(costs)
+                ? assignByCost(suiteClass, new ArrayList<>(rules.keySet()))
+                : assignByHash(new ArrayList<>(rules.keySet()));
+        Map<String, ArchRule> selected = new LinkedHashMap<>();
+        rules.forEach((name, rule) -> {
+            if (assigned.contains(name)) {
+                selected.put(name, rule);
+            }
+        });
+        return selected;
+    }
+
+    private List<String> assignByHash(List<String> ruleNames) {
+        // String.hashCode определен спецификацией и одинаков во всех JVM
+        return ruleNames.stream()
+                .filter(name -> Math.floorMod(name.hashCode(), count) == index)
+                .toList();
+    }
+
+    private List<String> assignByCost(Class<?> suiteClass, List<String> ruleNames) {
+        RuleCosts costsByRule = RuleCosts.read(costs, suiteClass);
+        ruleNames.sort(Comparator.<String>comparingLong(costsByRule::of)
+                .reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] load = new long[count];
+        List<String> assigned = new ArrayList<>();
+        for (String name : ruleNames) {
+            int lightest = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (load[shard] < load[lightest]) {
+                    lightest = shard;
+                }
+            }
+            load[lightest] += costsByRule.of(name);
+            if (lightest == index) {
+                assigned.add(name);
+            }
+        }
+        return assigned;
+    }
+
+    public enum Strategy {
+        HASH,
+        COST
+    }
+}
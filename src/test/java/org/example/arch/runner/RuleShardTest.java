@@ -0,0 +1,60 @@
+package org.example.arch.runner;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import org.example.arch.metrics.RuleProfiler;
+import org.example.arch.runner.RuleShard.Strategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Разбиение по затратам строится по отчету, который записал RuleProfiler
+public class RuleShardTest {
+
+    private static final long SLOW_RULE_MILLIS = 300;
+
+    @Test
+    @DisplayName("Самое дорогое по замерам RuleProfiler правило получает отдельную часть")
+    void cost_strategy_uses_profiled_costs(@TempDir Path directory) {
+        Map<String, ArchRule> rules = new LinkedHashMap<>();
+        rules.put("fast_1", ruleTaking(0));
+        rules.put("slow", ruleTaking(SLOW_RULE_MILLIS));
+        rules.put("fast_2", ruleTaking(0));
+        rules.put("fast_3", ruleTaking(0));
+        JavaClasses classes = new ClassFileImporter().importClasses(RuleShardTest.class);
+        rules.forEach((name, rule) -> RuleProfiler.evaluate(RuleShardTest.class, name, rule, () -> classes));
+        Path summary = directory.resolve("rule-metrics.json");
+
+        RuleProfiler.writeSummary(summary);
+
+        assertEquals(Set.of("slow"), new RuleShard(0, 2, Strategy.COST, summary).select(RuleShardTest.class, rules).keySet());
+        assertEquals(Set.of("fast_1", "fast_2", "fast_3"),
+                new RuleShard(1, 2, Strategy.COST, summary).select(RuleShardTest.class, rules).keySet());
+    }
+
+    private static ArchRule ruleTaking(long millis) {
+        return classes().should(new ArchCondition<JavaClass>("take " + millis + " ms") {
+            @Override
+            public void check(JavaClass javaClass, ConditionEvents events) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+}
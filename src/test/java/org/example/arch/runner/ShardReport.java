@@ -0,0 +1,72 @@
+package org.example.arch.runner;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.arch.metrics.RuleMetrics;
+import org.example.arch.metrics.RuleProfiler;
+import org.example.arch.report.Json;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Результаты частей набора правил: каждый форк пишет свои результаты в target/archunit-shards/results-N.json,
+ * а после всех форков они сводятся в общий report.json в порядке частей. Отчеты RuleProfiler форков
+ * (rule-metrics-N.json) при этом сводятся в общий отчет, по которому разбивается следующая сборка.
+ */
+public final class ShardReport {
+
+    public static final Path DIRECTORY = Path.of(System.getProperty("archunit.shard.dir", "target/archunit-shards"));
+
+    private static final String RESULTS_PREFIX = "results-";
+    private static final String METRICS_PREFIX = "rule-metrics-";
+
+    private ShardReport() {
+    }
+
+    public static void write(int shard, List<RuleResult> results) {
+        Json.write(DIRECTORY.resolve(RESULTS_PREFIX + shard + ".json"), results.stream()
+                .map(result -> new ShardResult(shard, result.ruleName(), result.hasFailed(),
+                        result.hasFailed() ? result.getFailureMessage() : ""))
+                .toList());
+    }
+
+    /**
+     * Сводит результаты и замеры частей 0..count-1, отсутствие результатов какой-либо части считается ошибкой.
+     * Файлы от прошлых запусков с другим числом частей не учитываются.
+     */
+    public static List<ShardResult> merge(int count) {
+        List<ShardResult> results = new ArrayList<>();
+        List<RuleMetrics> metrics = new ArrayList<>();
+        for (int shard = 0; shard < count; shard++) {
+            Path resultsFile = DIRECTORY.resolve(RESULTS_PREFIX + shard + ".json");
+            if (!Files.isRegularFile(resultsFile)) {
+                throw new IllegalStateException("No results of shard " + shard + " in " + DIRECTORY);
+            }
+            List<ShardResult> shardResults = List.of(Json.read(resultsFile, ShardResult[].class));
+            results.addAll(shardResults);
+            Path metricsFile = DIRECTORY.resolve(METRICS_PREFIX + shard + ".json");
+            if (Files.isRegularFile(metricsFile)) {
+                // Замеры в файле части сливаются между запусками, берутся только правила, проверенные частью сейчас
+                Set<String> checked = shardResults.stream().map(ShardResult::ruleName).collect(Collectors.toSet());
+                RuleMetrics.readSummary(metricsFile).stream()
+                        .filter(rule -> checked.contains(rule.ruleName()))
+                        .forEach(metrics::add);
+            }
+        }
+
+        Json.write(DIRECTORY.resolve("report.json"), results);
+        // Общий отчет замеров используется для разбиения по затратам в следующей сборке,
+        // замеры других наборов в нем сохраняются
+        if (!metrics.isEmpty()) {
+            RuleMetrics.mergeSummary(RuleProfiler.SUMMARY_FILE, metrics);
+        }
+        return results;
+    }
+
+    public record ShardResult(int shard, @JsonProperty("rule") String ruleName, boolean failed, String message) {
+    }
+}
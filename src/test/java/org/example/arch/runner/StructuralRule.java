@@ -0,0 +1,16 @@
+package org.example.arch.runner;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Правило проверяет только структуру классов: имена, пакеты, модификаторы, сигнатуры и аннотации.
+ * {@link ArchTestSuite} вычисляет такие правила на импорте без тел методов, который строится заметно быстрее.
+ * Правила с зависимостями, обращениями или вызовами методов так помечать нельзя: в этом импорте их нет.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface StructuralRule {
+}
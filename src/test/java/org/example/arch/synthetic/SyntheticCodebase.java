@@ -0,0 +1,442 @@
+package org.example.arch.synthetic;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Генератор скомпилированных классов в раскладке пакетов сервиса: контроллеры, сервисы, репозитории,
+ * мапперы, продюсеры, DAO jOOQ, события и их обработчики. Нужен, чтобы проверять правила и импорт на объемах реального монолита.
+ * Размер, плотность зависимостей и число заложенных нарушений настраиваются, классы генерируются байткодом
+ * напрямую, компилятор не нужен; один и тот же seed дает один и тот же набор классов.
+ */
+public final class SyntheticCodebase {
+
+    public static final String BASE_PACKAGE = "ru.proitr";
+    public static final long DEFAULT_SEED = 42;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String STRING = "java/lang/String";
+    private static final String CONSTRUCTOR = "<init>";
+    private static final String NO_ARGS = "()V";
+    private static final String EVENT_LISTENER = "Lorg/springframework/context/event/EventListener;";
+    private static final String GET_MAPPING = "Lorg/springframework/web/bind/annotation/GetMapping;";
+    private static final String PAYLOAD_GETTER = "getPayload";
+    private static final String SEEDED_DEPENDENCY = "seededDependency";
+    private static final String SEEDED_SERVICE = "seededService";
+    private static final int CLASSES_PER_MODULE = 100;
+    private static final int METHODS_PER_CLASS = 5;
+
+    private final int classCount;
+    private final int dependenciesPerClass;
+    private final int callsPerMethod;
+    private final Map<Violation, Integer> violations;
+    private final long seed;
+
+    private SyntheticCodebase(int classCount, int dependenciesPerClass, int callsPerMethod,
+                              Map<Violation, Integer> violations, long seed) {
+        this.classCount = classCount;
+        this.dependenciesPerClass = dependenciesPerClass;
+        this.callsPerMethod = callsPerMethod;
+        this.violations = violations;
+        this.seed = seed;
+    }
+
+    /**
+     * Кодовая база примерно из classCount классов: по 3 зависимости на класс и по 2 вызова на метод, без нарушений.
+     */
+    public static SyntheticCodebase ofSize(int classCount) {
+        if (classCount < Layer.values().length) {
+            throw new IllegalArgumentException("Codebase should contain at least one class per layer, but was " + classCount);
+        }
+        return new SyntheticCodebase(classCount, 3, 2, Collections.emptyMap(), DEFAULT_SEED);
+    }
+
+    public SyntheticCodebase withDependenciesPerClass(int dependenciesPerClass) {
+        return new SyntheticCodebase(classCount, dependenciesPerClass, callsPerMethod, violations, seed);
+    }
+
+    public SyntheticCodebase withCallsPerMethod(int callsPerMethod) {
+        return new SyntheticCodebase(classCount, dependenciesPerClass, callsPerMethod, violations, seed);
+    }
+
+    // Нарушение закладывается в count разных классов слоя, но не больше, чем классов в слое
+    public SyntheticCodebase withViolations(Violation violation, int count) {
+        Map<Violation, Integer> copy = new EnumMap<>(Violation.class);
+        copy.putAll(violations);
+        copy.put(violation, count);
+        return new SyntheticCodebase(classCount, dependenciesPerClass, callsPerMethod, Collections.unmodifiableMap(copy), seed);
+    }
+
+    public SyntheticCodebase withViolations(int countPerViolation) {
+        SyntheticCodebase codebase = this;
+        for (Violation violation : Violation.values()) {
+            codebase = codebase.withViolations(violation, countPerViolation);
+        }
+        return codebase;
+    }
+
+    public SyntheticCodebase withSeed(long seed) {
+        return new SyntheticCodebase(classCount, dependenciesPerClass, callsPerMethod, violations, seed);
+    }
+
+    /**
+     * Генерирует классы в директорию, импортировать их можно через ClassFileImporter.importPath.
+     */
+    public GeneratedCodebase generate(Path directory) {
+        return new Generator(directory).generate();
+    }
+
+    /**
+     * Нарушения, которые генератор умеет закладывать, и правила ArchitectureTest, которые должны их находить.
+     */
+    public enum Violation {
+        CONTROLLER_USES_REPOSITORY(Layer.CONTROLLER, "layered_architecture"),
+        SERVICE_USES_DAO(Layer.SERVICE, "no_classes_depend_on_dao_except_repo"),
+        UNANNOTATED_SERVICE(Layer.SERVICE, "all_classes_in_service_package_are_annotated_and_correctly_named"),
+        QUERY_INSIDE_LOOP(Layer.REPOSITORY, "no_database_queries_inside_loops"),
+        // Обратная зависимость на сервис, она же цикл между пакетами repository и service
+        REPOSITORY_USES_SERVICE(Layer.REPOSITORY, "layered_architecture"),
+        UNUSED_EVENT(Layer.EVENT, "all_events_are_used_in_system"),
+        BLOCKING_CALL_IN_CONTROLLER(Layer.CONTROLLER, "no_blocking_calls_on_listener_and_request_threads");
+
+        private final Layer layer;
+        private final String rule;
+
+        Violation(Layer layer, String rule) {
+            this.layer = layer;
+            this.rule = rule;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+    }
+
+    /**
+     * Директория со сгенерированными классами, их число и полные имена классов с заложенными нарушениями.
+     */
+    public record GeneratedCodebase(Path directory, int classCount, Map<Violation, Set<String>> seededViolations) {
+
+        public Set<String> getViolatingClasses(Violation violation) {
+            return seededViolations.getOrDefault(violation, Set.of());
+        }
+    }
+
+    private final class Generator {
+        private final Path directory;
+        private final Random random = new Random(seed);
+        private final Map<Violation, Set<String>> seeded = new EnumMap<>(Violation.class);
+        private int generated;
+
+        private Generator(Path directory) {
+            this.directory = directory;
+        }
+
+        private GeneratedCodebase generate() {
+            List<String> events = classNames(Layer.EVENT);
+            List<String> daos = classNames(Layer.DAO);
+            List<String> mappers = classNames(Layer.MAPPER);
+            List<String> repositories = classNames(Layer.REPOSITORY);
+            List<String> producers = classNames(Layer.PRODUCER);
+            List<String> services = classNames(Layer.SERVICE);
+            List<String> controllers = classNames(Layer.CONTROLLER);
+            Map<String, Set<Violation>> violatingClasses = seedViolations(Map.of(
+                    Layer.EVENT, events,
+                    Layer.REPOSITORY, repositories,
+                    Layer.SERVICE, services,
+                    Layer.CONTROLLER, controllers
+            ));
+
+            List<String> usedEvents = new ArrayList<>();
+            for (String event : events) {
+                write(event, generateEvent(event));
+                if (!violatingClasses.getOrDefault(event, Set.of()).contains(Violation.UNUSED_EVENT)) {
+                    usedEvents.add(event);
+                }
+            }
+            daos.forEach(dao -> write(dao, generateComponent(dao, Layer.DAO, List.of(), Set.of(), null, null)));
+            mappers.forEach(mapper -> write(mapper, generateComponent(mapper, Layer.MAPPER, List.of(), Set.of(), null, null)));
+            producers.forEach(producer -> write(producer, generateComponent(producer, Layer.PRODUCER, List.of(), Set.of(), null, null)));
+            for (String repository : repositories) {
+                write(repository, generateComponent(repository, Layer.REPOSITORY, pick(concat(daos, mappers)),
+                        violatingClasses.getOrDefault(repository, Set.of()), pickOne(daos), null));
+            }
+            // Каждое событие, кроме неиспользуемых, создается сервисом и обрабатывается своим обработчиком
+            for (int i = 0; i < services.size(); i++) {
+                String published = usedEvents.isEmpty() ? null : usedEvents.get(i % usedEvents.size());
+                write(services.get(i), generateComponent(services.get(i), Layer.SERVICE, pick(concat(repositories, producers)),
+                        violatingClasses.getOrDefault(services.get(i), Set.of()), pickOne(daos), published));
+            }
+            for (int i = 0; i < usedEvents.size(); i++) {
+                String listener = Layer.LISTENER.className(i);
+                write(listener, generateComponent(listener, Layer.LISTENER, pick(services), Set.of(), null, usedEvents.get(i)));
+            }
+            for (String controller : controllers) {
+                write(controller, generateComponent(controller, Layer.CONTROLLER, pick(services),
+                        violatingClasses.getOrDefault(controller, Set.of()), pickOne(repositories), null));
+            }
+
+            Map<Violation, Set<String>> result = new EnumMap<>(Violation.class);
+            seeded.forEach((violation, classNames) -> result.put(violation, Collections.unmodifiableSet(classNames)));
+            return new GeneratedCodebase(directory, generated, Collections.unmodifiableMap(result));
+        }
+
+        private List<String> classNames(Layer layer) {
+            int count = Math.max(1, classCount * layer.percent / 100);
+            List<String> classNames = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                classNames.add(layer.className(i));
+            }
+            return classNames;
+        }
+
+        private Map<String, Set<Violation>> seedViolations(Map<Layer, List<String>> layers) {
+            Map<String, Set<Violation>> violatingClasses = new HashMap<>();
+            violations.forEach((violation, count) -> {
+                List<String> candidates = new ArrayList<>(layers.get(violation.layer));
+                Collections.shuffle(candidates, random);
+                Set<String> picked = new LinkedHashSet<>();
+                for (String className : candidates.subList(0, Math.min(count, candidates.size()))) {
+                    violatingClasses.computeIfAbsent(className, name -> EnumSet.noneOf(Violation.class)).add(violation);
+                    picked.add(className.replace('/', '.'));
+                }
+                seeded.put(violation, picked);
+            });
+            return violatingClasses;
+        }
+
+        private byte[] generateEvent(String className) {
+            ClassWriter writer = newClass(className, null);
+            MethodVisitor getter = writer.visitMethod(Opcodes.ACC_PUBLIC, PAYLOAD_GETTER, "()L" + STRING + ";", null, null);
+            getter.visitCode();
+            getter.visitLdcInsn(className);
+            getter.visitInsn(Opcodes.ARETURN);
+            getter.visitMaxs(0, 0);
+            getter.visitEnd();
+            writer.visitEnd();
+            return writer.toByteArray();
+        }
+
+        // seededDependency используется только заложенными нарушениями, event - публикуемое или обрабатываемое событие
+        private byte[] generateComponent(String className, Layer layer, List<String> dependencies,
+                                         Set<Violation> classViolations, String seededDependency, String event) {
+            ClassWriter writer = newClass(className,
+                    classViolations.contains(Violation.UNANNOTATED_SERVICE) ? null : layer.annotation);
+            for (int i = 0; i < dependencies.size(); i++) {
+                writer.visitField(Opcodes.ACC_PRIVATE, "dependency" + i, "L" + dependencies.get(i) + ";", null, null).visitEnd();
+            }
+
+            for (int m = 0; m < METHODS_PER_CLASS; m++) {
+                MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "operation" + m, NO_ARGS, null, null);
+                if (layer == Layer.CONTROLLER) {
+                    method.visitAnnotation(GET_MAPPING, true).visitEnd();
+                }
+                method.visitCode();
+                visitDependencyCalls(method, className, dependencies);
+                if (m == 0 && layer == Layer.SERVICE && event != null) {
+                    method.visitTypeInsn(Opcodes.NEW, event);
+                    method.visitInsn(Opcodes.DUP);
+                    method.visitMethodInsn(Opcodes.INVOKESPECIAL, event, CONSTRUCTOR, NO_ARGS, false);
+                    method.visitInsn(Opcodes.POP);
+                }
+                method.visitInsn(Opcodes.RETURN);
+                method.visitMaxs(0, 0);
+                method.visitEnd();
+            }
+
+            if (layer == Layer.LISTENER) {
+                MethodVisitor handler = writer.visitMethod(Opcodes.ACC_PUBLIC, "on", "(L" + event + ";)V", null, null);
+                handler.visitAnnotation(EVENT_LISTENER, true).visitEnd();
+                handler.visitCode();
+                handler.visitVarInsn(Opcodes.ALOAD, 1);
+                handler.visitMethodInsn(Opcodes.INVOKEVIRTUAL, event, PAYLOAD_GETTER, "()L" + STRING + ";", false);
+                handler.visitInsn(Opcodes.POP);
+                visitDependencyCalls(handler, className, dependencies);
+                handler.visitInsn(Opcodes.RETURN);
+                handler.visitMaxs(0, 0);
+                handler.visitEnd();
+            }
+
+            for (Violation violation : classViolations) {
+                visitViolation(writer, className, violation, seededDependency);
+            }
+
+            writer.visitEnd();
+            return writer.toByteArray();
+        }
+
+        private void visitDependencyCalls(MethodVisitor method, String className, List<String> dependencies) {
+            for (int c = 0; c < callsPerMethod && !dependencies.isEmpty(); c++) {
+                int dependency = random.nextInt(dependencies.size());
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitFieldInsn(Opcodes.GETFIELD, className, "dependency" + dependency, "L" + dependencies.get(dependency) + ";");
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, dependencies.get(dependency), "operation" + random.nextInt(METHODS_PER_CLASS), NO_ARGS, false);
+            }
+        }
+
+        private void visitViolation(ClassWriter writer, String className, Violation violation, String seededDependency) {
+            switch (violation) {
+                case CONTROLLER_USES_REPOSITORY, SERVICE_USES_DAO -> {
+                    writer.visitField(Opcodes.ACC_PRIVATE, SEEDED_DEPENDENCY, "L" + seededDependency + ";", null, null).visitEnd();
+                    MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "bypassLayer", NO_ARGS, null, null);
+                    method.visitCode();
+                    visitSeededDependencyCall(method, className, seededDependency);
+                    method.visitInsn(Opcodes.RETURN);
+                    method.visitMaxs(0, 0);
+                    method.visitEnd();
+                }
+                case QUERY_INSIDE_LOOP -> {
+                    writer.visitField(Opcodes.ACC_PRIVATE, SEEDED_DEPENDENCY, "L" + seededDependency + ";", null, null).visitEnd();
+                    // for (int i = 0; i < count; i++) seededDependency.operation0();
+                    MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "queryEach", "(I)V", null, null);
+                    method.visitCode();
+                    Label condition = new Label();
+                    Label end = new Label();
+                    method.visitInsn(Opcodes.ICONST_0);
+                    method.visitVarInsn(Opcodes.ISTORE, 2);
+                    method.visitLabel(condition);
+                    method.visitVarInsn(Opcodes.ILOAD, 2);
+                    method.visitVarInsn(Opcodes.ILOAD, 1);
+                    method.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+                    visitSeededDependencyCall(method, className, seededDependency);
+                    method.visitIincInsn(2, 1);
+                    method.visitJumpInsn(Opcodes.GOTO, condition);
+                    method.visitLabel(end);
+                    method.visitInsn(Opcodes.RETURN);
+                    method.visitMaxs(0, 0);
+                    method.visitEnd();
+                }
+                case REPOSITORY_USES_SERVICE -> {
+                    // Отдельное поле: в том же классе может быть заложен и QUERY_INSIDE_LOOP
+                    String service = pickOne(classNames(Layer.SERVICE));
+                    writer.visitField(Opcodes.ACC_PRIVATE, SEEDED_SERVICE, "L" + service + ";", null, null).visitEnd();
+                    MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "callService", NO_ARGS, null, null);
+                    method.visitCode();
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    method.visitFieldInsn(Opcodes.GETFIELD, className, SEEDED_SERVICE, "L" + service + ";");
+                    method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, service, "operation0", NO_ARGS, false);
+                    method.visitInsn(Opcodes.RETURN);
+                    method.visitMaxs(0, 0);
+                    method.visitEnd();
+                }
+                case BLOCKING_CALL_IN_CONTROLLER -> {
+                    MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "waitForResult", NO_ARGS, null, null);
+                    method.visitAnnotation(GET_MAPPING, true).visitEnd();
+                    method.visitCode();
+                    method.visitLdcInsn(100L);
+                    method.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Thread", "sleep", "(J)V", false);
+                    method.visitInsn(Opcodes.RETURN);
+                    method.visitMaxs(0, 0);
+                    method.visitEnd();
+                }
+                // Аннотация не ставится в generateComponent, у события нет обработчика
+                case UNANNOTATED_SERVICE, UNUSED_EVENT -> {
+                }
+            }
+        }
+
+        private void visitSeededDependencyCall(MethodVisitor method, String className, String seededDependency) {
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitFieldInsn(Opcodes.GETFIELD, className, SEEDED_DEPENDENCY, "L" + seededDependency + ";");
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, seededDependency, "operation0", NO_ARGS, false);
+        }
+
+        private ClassWriter newClass(String className, String annotation) {
+            // Фреймы считаются ASM, слияния разных ссылочных типов в сгенерированном коде нет
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+            writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className, null, OBJECT, null);
+            // Как у javac: по имени исходного файла классы сопоставляются изменениям в git
+            writer.visitSource(className.substring(className.lastIndexOf('/') + 1) + ".java", null);
+            if (annotation != null) {
+                writer.visitAnnotation(annotation, true).visitEnd();
+            }
+            MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, CONSTRUCTOR, NO_ARGS, null, null);
+            constructor.visitCode();
+            constructor.visitVarInsn(Opcodes.ALOAD, 0);
+            constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, CONSTRUCTOR, NO_ARGS, false);
+            constructor.visitInsn(Opcodes.RETURN);
+            constructor.visitMaxs(0, 0);
+            constructor.visitEnd();
+            return writer;
+        }
+
+        private List<String> pick(List<String> candidates) {
+            List<String> picked = new ArrayList<>();
+            for (int i = 0; i < Math.min(dependenciesPerClass, candidates.size()); i++) {
+                picked.add(candidates.get(random.nextInt(candidates.size())));
+            }
+            return picked;
+        }
+
+        private List<String> concat(List<String> first, List<String> second) {
+            List<String> candidates = new ArrayList<>(first);
+            candidates.addAll(second);
+            return candidates;
+        }
+
+        private String pickOne(List<String> candidates) {
+            return candidates.get(random.nextInt(candidates.size()));
+        }
+
+        private void write(String className, byte[] bytecode) {
+            Path classFile = directory.resolve(className + ".class");
+            try {
+                Files.createDirectories(classFile.getParent());
+                Files.write(classFile, bytecode);
+                generated++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't write generated class " + classFile, e);
+            }
+        }
+    }
+
+    private enum Layer {
+        EVENT("events", "Some", "Event", null, 10, false),
+        DAO("generated/tables/daos", "Table", "Dao", null, 15, true),
+        MAPPER("mapper", "Some", "Mapper", "Lorg/springframework/stereotype/Component;", 5, true),
+        REPOSITORY("repository", "Some", "Repository", "Lorg/springframework/stereotype/Repository;", 15, true),
+        PRODUCER("producer", "Some", "Producer", "Lorg/springframework/stereotype/Component;", 5, true),
+        SERVICE("service", "Some", "Service", "Lorg/springframework/stereotype/Service;", 25, true),
+        LISTENER("listener", "Some", "Listener", "Lorg/springframework/stereotype/Component;", 10, true),
+        CONTROLLER("controller", "Some", "Controller", "Lorg/springframework/web/bind/annotation/RestController;", 15, true);
+
+        private final String packagePath;
+        private final String prefix;
+        private final String suffix;
+        private final String annotation;
+        private final int percent;
+        private final boolean modular;
+
+        // Правило событий смотрит только на сам пакет events, поэтому события не раскладываются по модулям
+        Layer(String subpackage, String prefix, String suffix, String annotation, int percent, boolean modular) {
+            this.packagePath = BASE_PACKAGE.replace('.', '/') + "/" + subpackage;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.annotation = annotation;
+            this.percent = percent;
+            this.modular = modular;
+        }
+
+        String className(int index) {
+            String module = modular ? "/module" + (index / CLASSES_PER_MODULE) : "";
+            return packagePath + module + "/" + prefix + index + suffix;
+        }
+    }
+}